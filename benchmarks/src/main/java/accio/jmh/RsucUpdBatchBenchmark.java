@@ -0,0 +1,72 @@
+package accio.jmh;
+
+import accio.RSUC;
+import encryption.bulletproof.Scalar;
+import global.Global;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个结算窗口内 n 个 payee 通道的 vfUpd：逐个验证（single）与 RSUC.vfUpdBatch（batch）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RsucUpdBatchBenchmark {
+
+    @Param({"16", "64"})
+    public int n;
+
+    private RSUC rsuc;
+    private RSUC.VerifyingKey verifyingKey;
+    private final List<RSUC.CM> cms = new ArrayList<>();
+    private final List<Scalar> amounts = new ArrayList<>();
+    private final List<RSUC.CM> cms_ = new ArrayList<>();
+    private final List<RSUC.Sig> sigs = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        rsuc = new RSUC(Global.g, Global.h, Global.hatG);
+        RSUC.KeyPair keyPair = rsuc.keyGen();
+        verifyingKey = rsuc.verifyingKey(keyPair.X0, keyPair.X1);
+        RSUC.PreparedSigningKey key = rsuc.prepare(keyPair);
+        for (int i = 0; i < n; i++) {
+            RSUC.AuthInfo old = rsuc.authCom(Scalar.random(), Scalar.random(), key);
+            Scalar a = Scalar.fromLong(1 + i);
+            RSUC.AuthInfo upd = rsuc.updAC(old.cm, a, key);
+            cms.add(old.cm);
+            amounts.add(a);
+            cms_.add(upd.cm);
+            sigs.add(upd.sig);
+        }
+    }
+
+    @Benchmark
+    public boolean single() throws Exception {
+        boolean ok = true;
+        for (int i = 0; i < n; i++)
+            ok &= rsuc.vfUpd(cms.get(i), amounts.get(i), cms_.get(i), sigs.get(i), verifyingKey);
+        return ok;
+    }
+
+    @Benchmark
+    public boolean batch() throws Exception {
+        return rsuc.vfUpdBatch(cms, amounts, cms_, sigs, verifyingKey);
+    }
+}
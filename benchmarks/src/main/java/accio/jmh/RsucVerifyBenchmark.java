@@ -0,0 +1,58 @@
+package accio.jmh;
+
+import accio.RSUC;
+import encryption.bulletproof.Scalar;
+import global.Global;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accio 基线的 RSUC.vfAuth：三次配对乘积（separate）、预编码公钥的三次配对（prepared）
+ * 与随机线性组合后的一次多配对（combined）。与 LightHub 的 RDBS 验证对比时应取 combined。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RsucVerifyBenchmark {
+
+    private RSUC rsuc;
+    private RSUC.KeyPair keyPair;
+    private RSUC.VerifyingKey verifyingKey;
+    private RSUC.AuthInfo authInfo;
+
+    @Setup
+    public void setup() {
+        rsuc = new RSUC(Global.g, Global.h, Global.hatG);
+        keyPair = rsuc.keyGen();
+        verifyingKey = rsuc.verifyingKey(keyPair.X0, keyPair.X1);
+        authInfo = rsuc.authCom(Scalar.random(), Scalar.random(), rsuc.prepare(keyPair));
+    }
+
+    @Benchmark
+    public boolean separate() throws Exception {
+        return rsuc.vfAuth(authInfo.cm, authInfo.sig, keyPair.X0, keyPair.X1);
+    }
+
+    @Benchmark
+    public boolean prepared() throws Exception {
+        return rsuc.vfAuth(authInfo.cm, authInfo.sig, verifyingKey);
+    }
+
+    @Benchmark
+    public boolean combined() throws Exception {
+        return rsuc.vfAuthCombined(authInfo.cm, authInfo.sig, verifyingKey);
+    }
+}
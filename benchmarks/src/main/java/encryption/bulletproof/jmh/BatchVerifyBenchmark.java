@@ -0,0 +1,77 @@
+package encryption.bulletproof.jmh;
+
+import encryption.bulletproof.BulletproofGens;
+import encryption.bulletproof.PedersenCommitment;
+import encryption.bulletproof.Point;
+import encryption.bulletproof.RangeProof;
+import encryption.bulletproof.RangeProofPlus;
+import encryption.bulletproof.Scalar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * hub 一次收到 batch 笔支付时的验证开销：RangeProof 逐个验证，
+ * 对照 RangeProofPlus 合成一次 MSM 的批量验证。结果为整批耗时。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchVerifyBenchmark {
+
+    @Param({"8", "16", "32", "64"})
+    public int bits;
+
+    @Param({"1", "4", "16", "64"})
+    public int batch;
+
+    private PedersenCommitment pc;
+    private BulletproofGens gens;
+    private List<Point> commitments;
+    private List<RangeProof> proofs;
+    private List<RangeProofPlus> proofsPlus;
+
+    @Setup
+    public void setup() {
+        pc = new PedersenCommitment();
+        gens = BulletproofGens.shared(bits, 1);
+        commitments = new ArrayList<>(batch);
+        proofs = new ArrayList<>(batch);
+        proofsPlus = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++) {
+            long v = Fixtures.randomValue(bits);
+            Scalar r = Scalar.random();
+            commitments.add(pc.commit(Scalar.fromLong(v), r));
+            proofs.add(RangeProof.prove(v, r, bits, pc, gens, Fixtures.transcript()));
+            proofsPlus.add(RangeProofPlus.prove(v, r, bits, pc, gens, Fixtures.transcript()));
+        }
+    }
+
+    @Benchmark
+    public boolean verifyEach() {
+        boolean ok = true;
+        for (int i = 0; i < batch; i++)
+            ok &= proofs.get(i).verify(commitments.get(i), bits, pc, gens, Fixtures.transcript());
+        return ok;
+    }
+
+    @Benchmark
+    public boolean verifyPlusBatch() {
+        return RangeProofPlus.verifyBatch(proofsPlus, commitments, bits, pc, gens, Fixtures.transcripts(batch));
+    }
+}
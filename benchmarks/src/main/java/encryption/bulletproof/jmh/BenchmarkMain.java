@@ -0,0 +1,32 @@
+package encryption.bulletproof.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * benchmarks.jar 的入口：在 JMH 命令行参数之上固定加 GC profiler
+ * （gc.alloc.rate.norm 即每次调用的分配字节数），并把 java.library.path
+ * 传给被 fork 的 JVM，使 bn_jni 可加载。
+ * <pre>
+ *   java -Djava.library.path=../bn128-jni/native/target/release -jar target/benchmarks.jar [JMH 参数]
+ * </pre>
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(new CommandLineOptions(args));
+        builder.addProfiler(GCProfiler.class);
+        String libPath = System.getProperty("java.library.path");
+        if (libPath != null) builder.jvmArgsAppend("-Djava.library.path=" + libPath);
+        Options opts = builder.build();
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,61 @@
+package encryption.bulletproof.jmh;
+
+import encryption.bulletproof.BulletproofGens;
+import encryption.bulletproof.PedersenCommitment;
+import encryption.bulletproof.Point;
+import encryption.bulletproof.PreparedVectorCommitter;
+import encryption.bulletproof.Scalar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 范围证明中 S 的向量承诺：通用 MSM 与 PreparedVectorCommitter 查表对照。
+ * 查表注册是进程级的，每组参数各自 fork 一个 JVM，互不影响。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommitVecBenchmark {
+
+    @Param({"8", "16", "32", "64"})
+    public int bits;
+
+    @Param({"false", "true"})
+    public boolean prepared;
+
+    private PedersenCommitment pc;
+    private BulletproofGens gens;
+    private List<Scalar> a;
+    private List<Scalar> b;
+    private Scalar r;
+
+    @Setup
+    public void setup() {
+        pc = new PedersenCommitment();
+        gens = BulletproofGens.shared(bits, 1);
+        if (prepared) PreparedVectorCommitter.prepare(gens);
+        a = Scalar.randomVector(bits);
+        b = Scalar.randomVector(bits);
+        r = Scalar.random();
+    }
+
+    @Benchmark
+    public Point commitVec() {
+        return pc.commitVec(gens.G, gens.H, a, b, r);
+    }
+}
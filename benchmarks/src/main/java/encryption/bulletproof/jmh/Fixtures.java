@@ -0,0 +1,30 @@
+package encryption.bulletproof.jmh;
+
+import encryption.bulletproof.Scalar;
+import encryption.bulletproof.Transcript;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** 各基准共用的输入构造：固定域分隔符、按位宽取随机金额 */
+final class Fixtures {
+
+    static final byte[] DOMAIN = "BP".getBytes();
+
+    private Fixtures() {}
+
+    static Transcript transcript() {
+        return new Transcript(DOMAIN);
+    }
+
+    static List<Transcript> transcripts(int n) {
+        List<Transcript> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(transcript());
+        return out;
+    }
+
+    static long randomValue(int bits) {
+        long v = Scalar.random().toLong();
+        return bits == 64 ? v & Long.MAX_VALUE : v & ((1L << bits) - 1);
+    }
+}
@@ -0,0 +1,57 @@
+package encryption.bulletproof.jmh;
+
+import encryption.bulletproof.BulletproofGens;
+import encryption.bulletproof.InnerProductProof;
+import encryption.bulletproof.Scalar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/** RangeProof 内层的 InnerProductProof.prove_1，单线程与 commonPool 多核 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InnerProductBenchmark {
+
+    @Param({"8", "16", "32", "64"})
+    public int bits;
+
+    private BulletproofGens gens;
+    private List<Scalar> l;
+    private List<Scalar> r;
+    private Scalar y;
+
+    @Setup
+    public void setup() {
+        gens = BulletproofGens.shared(bits, 1);
+        l = Scalar.randomVector(bits);
+        r = Scalar.randomVector(bits);
+        y = Scalar.random();
+    }
+
+    @Benchmark
+    public InnerProductProof prove() {
+        return InnerProductProof.prove_1(l, r, gens, y, Fixtures.transcript());
+    }
+
+    @Benchmark
+    public InnerProductProof proveParallel() {
+        return InnerProductProof.prove_1(l, r, gens, y, Fixtures.transcript(),
+                ForkJoinPool.commonPool(), 16);
+    }
+}
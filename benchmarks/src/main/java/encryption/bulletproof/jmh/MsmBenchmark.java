@@ -0,0 +1,56 @@
+package encryption.bulletproof.jmh;
+
+import encryption.bulletproof.Point;
+import encryption.bulletproof.Scalar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point.msm 的规模曲线。n = 2·bits + 常数项附近即对应各位宽的验证方程，
+ * 更大的 n 对应批量验证把多份证明合成一次 MSM 的情形。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MsmBenchmark {
+
+    @Param({"16", "32", "64", "128", "256", "1024"})
+    public int n;
+
+    private List<Point> points;
+    private List<Scalar> scalars;
+
+    @Setup
+    public void setup() {
+        points = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) points.add(Point.hashToPoint(("MSM." + i).getBytes()));
+        scalars = Scalar.randomVector(n);
+    }
+
+    @Benchmark
+    public Point msm() {
+        return Point.msm(points, scalars);
+    }
+
+    @Benchmark
+    public Point msmParallel() {
+        return Point.msm(points, scalars, ForkJoinPool.commonPool(), 16);
+    }
+}
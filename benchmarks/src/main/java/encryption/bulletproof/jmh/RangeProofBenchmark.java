@@ -0,0 +1,76 @@
+package encryption.bulletproof.jmh;
+
+import encryption.bulletproof.BulletproofGens;
+import encryption.bulletproof.PedersenCommitment;
+import encryption.bulletproof.Point;
+import encryption.bulletproof.RangeProof;
+import encryption.bulletproof.RangeProofPlus;
+import encryption.bulletproof.Scalar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** 单个范围证明的 prove / verify，RangeProof 与 RangeProofPlus 对照 */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RangeProofBenchmark {
+
+    @Param({"8", "16", "32", "64"})
+    public int bits;
+
+    private PedersenCommitment pc;
+    private BulletproofGens gens;
+    private long v;
+    private Scalar blind;
+    private Point V;
+    private RangeProof proof;
+    private RangeProofPlus proofPlus;
+
+    @Setup
+    public void setup() {
+        pc = new PedersenCommitment();
+        gens = BulletproofGens.shared(bits, 1);
+        v = Fixtures.randomValue(bits);
+        blind = Scalar.random();
+        V = pc.commit(Scalar.fromLong(v), blind);
+        proof = RangeProof.prove(v, blind, bits, pc, gens, Fixtures.transcript());
+        proofPlus = RangeProofPlus.prove(v, blind, bits, pc, gens, Fixtures.transcript());
+        if (!proof.verify(V, bits, pc, gens, Fixtures.transcript())
+                || !proofPlus.verify(V, bits, pc, gens, Fixtures.transcript()))
+            throw new IllegalStateException("fixture proof does not verify");
+    }
+
+    @Benchmark
+    public RangeProof prove() {
+        return RangeProof.prove(v, blind, bits, pc, gens, Fixtures.transcript());
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return proof.verify(V, bits, pc, gens, Fixtures.transcript());
+    }
+
+    @Benchmark
+    public RangeProofPlus provePlus() {
+        return RangeProofPlus.prove(v, blind, bits, pc, gens, Fixtures.transcript());
+    }
+
+    @Benchmark
+    public boolean verifyPlus() {
+        return proofPlus.verify(V, bits, pc, gens, Fixtures.transcript());
+    }
+}
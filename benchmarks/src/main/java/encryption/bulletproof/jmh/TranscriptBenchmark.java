@@ -0,0 +1,72 @@
+package encryption.bulletproof.jmh;
+
+import encryption.bulletproof.Point;
+import encryption.bulletproof.Scalar;
+import encryption.bulletproof.Transcript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次范围证明的完整 Fiat–Shamir 序列（V、A、S → y、z → T1、T2 → x → taux/mu/tHat，
+ * 再 log₂(bits) 轮 L/R → 挑战），V1 与 V2 编码对照。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranscriptBenchmark {
+
+    @Param({"8", "16", "32", "64"})
+    public int bits;
+
+    @Param({"V1", "V2"})
+    public Transcript.Version version;
+
+    private Point[] points;
+    private Scalar scalar;
+    private int rounds;
+
+    @Setup
+    public void setup() {
+        rounds = Integer.numberOfTrailingZeros(bits);
+        points = new Point[5 + 2 * rounds];
+        for (int i = 0; i < points.length; i++) points[i] = Point.hashToPoint(("TS." + i).getBytes());
+        scalar = Scalar.random();
+    }
+
+    @Benchmark
+    public Scalar rangeProofSequence() {
+        Transcript ts = new Transcript(Fixtures.DOMAIN, version);
+        ts.appendPoint("V", points[0]);
+        ts.appendPoint("A", points[1]);
+        ts.appendPoint("S", points[2]);
+        ts.challengeScalar("y");
+        ts.challengeScalar("z");
+        ts.appendPoint("T1", points[3]);
+        ts.appendPoint("T2", points[4]);
+        ts.challengeScalar("x");
+        ts.appendScalar("taux", scalar);
+        ts.appendScalar("mu", scalar);
+        ts.appendScalar("tHat", scalar);
+        Scalar c = ts.challengeScalar("w");
+        for (int i = 0; i < rounds; i++) {
+            ts.appendPoint("L", points[5 + 2 * i]);
+            ts.appendPoint("R", points[6 + 2 * i]);
+            c = ts.challengeScalar("x");
+        }
+        return c;
+    }
+}
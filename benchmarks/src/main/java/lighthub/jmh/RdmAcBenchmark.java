@@ -0,0 +1,76 @@
+package lighthub.jmh;
+
+import encryption.bulletproof.Point;
+import encryption.bulletproof.Scalar;
+import global.Global;
+import lighthub.RDBS;
+import org.aion.tetryon.G2;
+import org.aion.tetryon.G2Point;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 收款方每次收款后的 RDBS.rdmAC 重随机化。baseline 按原实现逐项计算
+ * （h·r、T·r、点加后乘 s⁻¹、S·s、T·s⁻¹、逐位 G2 乘法），optimized 为当前 {@link RDBS#rdmAC}；
+ * g2Mul / g2MulGLS 单独给出 hatS 一项的对比。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RdmAcBenchmark {
+
+    private RDBS rdbs;
+    private RDBS.AuthInfo authInfo;
+    private Scalar r;
+    private Scalar s;
+
+    @Setup
+    public void setup() {
+        rdbs = new RDBS(Global.g, Global.h, Global.hatG);
+        RDBS.KeyPair keyPair = rdbs.keyGen();
+        authInfo = rdbs.authCom(Scalar.random(), keyPair.x, Scalar.random());
+        r = Scalar.random();
+        s = Scalar.random();
+    }
+
+    @Benchmark
+    public RDBS.AuthInfo baseline() {
+        RDBS.CM cm = authInfo.cm;
+        RDBS.Sig sig = authInfo.sig;
+        Scalar sInv = s.inv();
+        Point C = cm.C.add(rdbs.h.mul(r));
+        Point Z = sig.Z.add(sig.T.mul(r)).mul(sInv);
+        Point S = sig.S.mul(s);
+        G2Point hatS = G2.ECTwistMul(sig.hatS, s.toBigInt());
+        Point T = sig.T.mul(sInv);
+        return new RDBS.AuthInfo(new RDBS.CM(C), new RDBS.Sig(Z, S, T, hatS));
+    }
+
+    @Benchmark
+    public RDBS.AuthInfo optimized() {
+        return rdbs.rdmAC(authInfo.cm, authInfo.sig, r);
+    }
+
+    @Benchmark
+    public G2Point g2Mul() {
+        return G2.ECTwistMul(authInfo.sig.hatS, s.toBigInt());
+    }
+
+    @Benchmark
+    public G2Point g2MulGLS() {
+        return G2.mulGLS(authInfo.sig.hatS, s.toBigInt());
+    }
+}
@@ -260,6 +260,110 @@ fn alt_bn128_mul_internal(
     Ok(())
 }
 
+#[no_mangle]
+pub extern "system" fn Java_org_aion_tetryon_AltBn128Jni_g1EcMul2(
+    env: JNIEnv,
+    class: JClass,
+    point1_j: jbyteArray,
+    scalar1_j: jbyteArray,
+    point2_j: jbyteArray,
+    scalar2_j: jbyteArray,
+) -> jbyteArray {
+    let p1_byte = env.convert_byte_array(point1_j).unwrap();
+    let s1_byte = env.convert_byte_array(scalar1_j).unwrap();
+    let p2_byte = env.convert_byte_array(point2_j).unwrap();
+    let s2_byte = env.convert_byte_array(scalar2_j).unwrap();
+
+    let mut p3_byte: [u8; FP_SIZE * 2] = [0; FP_SIZE * 2];
+    let ret = alt_bn128_mul2_internal(&p1_byte, &s1_byte, &p2_byte, &s2_byte, &mut p3_byte);
+
+    match ret {
+        Err(e) => {
+            env.throw(format!("{}", e)).unwrap();
+            return JObject::null().into_inner();
+        }
+        Ok(_) => {
+            let output = env.byte_array_from_slice(&p3_byte).unwrap();
+            return output;
+        }
+    }
+}
+
+// fixed (unsigned) window width for the double-scalar multiplication
+const MUL2_WINDOW: usize = 4;
+
+// s1 * p1 + s2 * p2 with one shared doubling chain: both scalars are consumed
+// MUL2_WINDOW bits at a time, adding from a per-point table of 0..2^w - 1 multiples.
+fn alt_bn128_mul2_internal(
+    p1_byte: &[u8],
+    s1_byte: &[u8],
+    p2_byte: &[u8],
+    s2_byte: &[u8],
+    p3_byte: &mut [u8],
+) -> Result<(), PairingErr> {
+    let p1 = deserialize_g1(p1_byte)?;
+    let p2 = deserialize_g1(p2_byte)?;
+    let s1 = Fr::from_slice(&s1_byte[0..FP_SIZE])?.into_u256();
+    let s2 = Fr::from_slice(&s2_byte[0..FP_SIZE])?.into_u256();
+
+    let t1 = mul2_table(p1);
+    let t2 = mul2_table(p2);
+
+    let mut res = G1::zero();
+    let mut started = false;
+    let mut i = 256;
+    while i > 0 {
+        i -= MUL2_WINDOW;
+        if started {
+            for _ in 0..MUL2_WINDOW {
+                res = res + res;
+            }
+        }
+        let d1 = mul2_digit(&s1, i);
+        let d2 = mul2_digit(&s2, i);
+        if d1 != 0 {
+            res = res + t1[d1];
+            started = true;
+        }
+        if d2 != 0 {
+            res = res + t2[d2];
+            started = true;
+        }
+    }
+
+    if let Some(p3_af) = AffineG1::from_jacobian(res) {
+        p3_af
+            .x()
+            .into_u256()
+            .to_big_endian(&mut p3_byte[0..FP_SIZE])?;
+        p3_af
+            .y()
+            .into_u256()
+            .to_big_endian(&mut p3_byte[FP_SIZE..FP_SIZE * 2])?;
+    }
+
+    Ok(())
+}
+
+fn mul2_table(p: G1) -> [G1; 1 << MUL2_WINDOW] {
+    let mut table = [G1::zero(); 1 << MUL2_WINDOW];
+    for k in 1..(1 << MUL2_WINDOW) {
+        table[k] = table[k - 1] + p;
+    }
+    table
+}
+
+fn mul2_digit(s: &U256, lo: usize) -> usize {
+    let mut d = 0;
+    for b in (0..MUL2_WINDOW).rev() {
+        d <<= 1;
+        if s.get_bit(lo + b).unwrap_or(false) {
+            d |= 1;
+        }
+    }
+    d
+}
+
 #[no_mangle]
 pub extern "system" fn Java_org_aion_tetryon_AltBn128Jni_ecPair(
     env: JNIEnv,
@@ -35,7 +35,8 @@ public class AccioMain {
         Hub hubRight = new Hub(HubV);
         RSUC rsuc = new RSUC(Global.g, Global.h, Global.hatG);
         RSUC.KeyPair keyPair = rsuc.keyGen();
-        hubRight.setKeyPair(keyPair);
+        hubRight.setKeyPair(rsuc, keyPair);
+        RSUC.VerifyingKey verifyingKey = rsuc.verifyingKey(keyPair.X0, keyPair.X1);
 
         PayeeHubChannel payeeHub = new PayeeHubChannel(payee, hubRight);
         payeeHub.setRsuc(rsuc);
@@ -49,7 +50,7 @@ public class AccioMain {
             System.out.println("Cm check success!");
         }
 
-        boolean authCheck = rsuc.vfAuth(authInfo.cm, authInfo.sig, keyPair.X0, keyPair.X1);
+        boolean authCheck = rsuc.vfAuthCombined(authInfo.cm, authInfo.sig, verifyingKey);
         if (!authCheck){
             System.out.println("Auth check error!");
         }else {
@@ -73,7 +74,7 @@ public class AccioMain {
 
         Scalar r_ = Scalar.random();
         RSUC.AuthInfo authInfo_ = rsuc.rdmAC(authInfo.cm, authInfo.sig, r_);
-        boolean authCheck_ = rsuc.vfAuth(authInfo.cm, authInfo.sig, keyPair.X0, keyPair.X1);
+        boolean authCheck_ = rsuc.vfAuthCombined(authInfo.cm, authInfo.sig, verifyingKey);
         if (!authCheck_){
             System.out.println("blinded Auth check error!");
         }else {
@@ -97,7 +98,7 @@ public class AccioMain {
 
 
         // hub check
-        authCheck_ = rsuc.vfAuth(authInfo.cm, authInfo.sig, keyPair.X0, keyPair.X1);
+        authCheck_ = rsuc.vfAuthCombined(authInfo.cm, authInfo.sig, verifyingKey);
         if (!authCheck_){
             System.out.println("blinded Auth check error!");
         }else {
@@ -105,10 +106,10 @@ public class AccioMain {
         }
 
         // hub update
-        RSUC.AuthInfo authInfo1 = rsuc.updAC(authInfo_.cm, amount, keyPair.x0, keyPair.x1);
+        RSUC.AuthInfo authInfo1 = hubRight.updAC(rsuc, authInfo_.cm, amount);
 
         // payer check
-        boolean authInfo1Check_ = rsuc.vfUpd(authInfo_.cm, amount, authInfo1.cm, authInfo1.sig, keyPair.X0, keyPair.X1);
+        boolean authInfo1Check_ = rsuc.vfUpd(authInfo_.cm, amount, authInfo1.cm, authInfo1.sig, verifyingKey);
         if (!authInfo1Check_){
             System.out.println("updated Auth check error!");
         }else {
@@ -116,7 +117,7 @@ public class AccioMain {
         }
 
         // payee check
-        authInfo1Check_ = rsuc.vfUpd(authInfo_.cm, amount, authInfo1.cm, authInfo1.sig, keyPair.X0, keyPair.X1);
+        authInfo1Check_ = rsuc.vfUpd(authInfo_.cm, amount, authInfo1.cm, authInfo1.sig, verifyingKey);
         if (!authInfo1Check_){
             System.out.println("updated Auth check error!");
         }else {
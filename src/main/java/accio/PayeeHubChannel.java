@@ -27,7 +27,7 @@ public class PayeeHubChannel {
     }
 
     public RSUC.AuthInfo blindChannel(Scalar r){
-        RSUC.AuthInfo authInfo = rsuc.authCom(payee.value, hub.keyPair.x0, hub.keyPair.x1, r);
+        RSUC.AuthInfo authInfo = hub.authCom(rsuc, payee.value, r);
         this.authInfo = authInfo;
         return authInfo;
     }
@@ -1,14 +1,25 @@
 package accio;
 
+import encryption.bulletproof.FixedBaseTable;
 import encryption.bulletproof.Point;
 import encryption.bulletproof.Scalar;
 import org.aion.tetryon.*;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.aion.tetryon.Pairing.pairing;
 
 public class RSUC {
+    private static final SecureRandom RNG = new SecureRandom();
+
     public final Point g;   // 基点 g
     public final Point h;   // 基点 h（与 g 离散对数未知）
 
@@ -74,6 +85,34 @@ public class RSUC {
         }else {
             System.out.println("updated Auth check success!");
         }
+
+        // 二进制编码：压缩 / 不压缩两种帧往返后仍可验证；改坏的 G1、G2 点在解码时被拒绝
+        byte[] wire = authInfo.toBytes();
+        byte[] raw = AuthInfoCodec.encode(authInfo, false);
+        AuthInfo decoded = AuthInfo.fromBytes(ByteBuffer.wrap(wire));
+        AuthInfo decodedRaw = AuthInfoCodec.decodeAuthInfo(ByteBuffer.wrap(raw));
+        boolean codecCheck = rsuc.vfAuth(decoded.cm, decoded.sig, keyPair.X0, keyPair.X1)
+                && rsuc.vfAuth(decodedRaw.cm, decodedRaw.sig, keyPair.X0, keyPair.X1)
+                && Arrays.equals(AuthInfoCodec.encode(decodedRaw, true), wire);
+        codecCheck &= rejectsFrame(raw, FrameCodec.HEADER_LEN + 63);      // 第一个 G1 点 y 的末字节
+        codecCheck &= rejectsFrame(raw, raw.length - 1);                  // hatS y 的末字节
+        if (!codecCheck){
+            System.out.println("codec check error!");
+        }else {
+            System.out.println("codec check success!");
+        }
+    }
+
+    /** 翻转 frame[pos] 的最低位后解码应抛出 IllegalArgumentException */
+    private static boolean rejectsFrame(byte[] frame, int pos) {
+        byte[] bad = frame.clone();
+        bad[pos] ^= 1;
+        try {
+            AuthInfoCodec.decodeAuthInfo(ByteBuffer.wrap(bad));
+            return false;
+        } catch (IllegalArgumentException expected) {
+            return true;
+        }
     }
 
 
@@ -120,6 +159,39 @@ public class RSUC {
         return new AuthInfo(cm, sig);
     }
 
+    /** 为签名密钥预计算 K = x0·g + x1·h 及其查表，见 {@link PreparedSigningKey} */
+    public PreparedSigningKey prepare(KeyPair keyPair){
+        return new PreparedSigningKey(this, keyPair);
+    }
+
+    /** 使用预计算密钥的 authCom：Z 一次 MSM，S、T 查表 */
+    public AuthInfo authCom(Scalar v, Scalar r, PreparedSigningKey key){
+        Point C0 = this.g.mul(r);
+        Point C1 = Point.mul2(v, this.g, r, this.h);
+        CM cm = new CM(C0, C1);
+        return new AuthInfo(cm, sign(cm, key));
+    }
+
+    /** 使用预计算密钥的 updAC */
+    public AuthInfo updAC(CM cm, Scalar a, PreparedSigningKey key){
+        CM cm_ = new CM(cm.C0, cm.C1.add(FixedBaseTable.of(this.g).mul(a)));
+        return new AuthInfo(cm_, sign(cm_, key));
+    }
+
+    /** Z = s⁻¹·g + (x0·s⁻¹)·C0 + (x1·s⁻¹)·C1，T = s⁻¹·K */
+    private Sig sign(CM cm, PreparedSigningKey key){
+        if (!key.g.equals(this.g) || !key.h.equals(this.h))
+            throw new IllegalArgumentException("signing key prepared for different parameters");
+        Scalar s = Scalar.random();
+        Scalar sInv = s.inv();
+        Point Z = Point.msm(Arrays.asList(this.g, cm.C0, cm.C1),
+                Arrays.asList(sInv, key.keyPair.x0.mul(sInv), key.keyPair.x1.mul(sInv)));
+        Point S = FixedBaseTable.of(this.g).mul(s);
+        G2Point hatS = G2.ECTwistMul(this.hatG, s.toBigInt());
+        Point T = key.kTable.mul(sInv);
+        return new Sig(Z, S, T, hatS);
+    }
+
     public boolean vfCom(CM cm, Scalar v, Scalar r){
         Point C0 = this.g.mul(r);
 
@@ -164,6 +236,78 @@ public class RSUC {
         return true;
     }
 
+    /** 校验公钥并预编码配对输入，见 {@link VerifyingKey}；公钥不合法时抛 IllegalArgumentException */
+    public VerifyingKey verifyingKey(G2Point X0, G2Point X1){
+        return new VerifyingKey(this, X0, X1);
+    }
+
+    /** 与 {@link #vfAuth(CM, Sig, G2Point, G2Point)} 相同，G2 侧使用预编码的 X0、X1 与 hatG，hatS 只编码一次 */
+    public boolean vfAuth(CM cm, Sig sig, VerifyingKey key) throws Exception {
+        if (!key.matches(this))
+            throw new IllegalArgumentException("verifying key prepared for different parameters");
+        byte[] hatS = Util.serializeG2(sig.hatS);
+
+        boolean result = pairing(new G1Point[]{sig.Z.neg().p, this.g.p, cm.C0.p, cm.C1.p},
+                new byte[][]{hatS, key.hatGEnc, key.x0Enc, key.x1Enc});
+        if (!result){
+            return false;
+        }
+
+        result = pairing(new G1Point[]{this.g.p, sig.S.neg().p}, new byte[][]{hatS, key.hatGEnc});
+        if (!result){
+            return false;
+        }
+
+        return pairing(new G1Point[]{sig.T.neg().p, this.g.p, this.h.p},
+                new byte[][]{hatS, key.x0Enc, key.x1Enc});
+    }
+
+    /**
+     * vfAuth 的三个配对等式以随机指数 b、c 合并（第一个等式系数取 1），一次多配对、一次最终幂：
+     * <pre>
+     *   e(-Z + b·g - c·T, hatS) · e(g - b·S, hatG) · e(C0 + c·g, X0) · e(C1 + c·h, X1) == 1
+     * </pre>
+     * 共 4 个配对（分开验证为 4 + 2 + 3 个、三次最终幂）。
+     * <p>
+     * 随机指数合并只在 G2 输入都属于 r 阶子群时可靠（扭曲线有小阶余因子分量），
+     * 公钥已在 {@link VerifyingKey} 构造时检查，hatS 来自线上，这里先做 {@link G2#isInSubgroupPsi}，
+     * 不通过返回 false；之后任一等式不成立时除 2⁻¹²⁸ 的概率外返回 false。
+     */
+    public boolean vfAuthCombined(CM cm, Sig sig, VerifyingKey key) throws Exception {
+        if (!key.matches(this))
+            throw new IllegalArgumentException("verifying key prepared for different parameters");
+        return combinedCheck(cm, sig, key.hatGEnc, key.x0Enc, key.x1Enc);
+    }
+
+    /**
+     * 同 {@link #vfAuthCombined(CM, Sig, VerifyingKey)}，公钥未预先注册时逐次编码，
+     * 并且每次都检查 X0、X1 在子群内，不在时返回 false；同一公钥反复验证应改用 VerifyingKey。
+     */
+    public boolean vfAuthCombined(CM cm, Sig sig, G2Point X0, G2Point X1) throws Exception {
+        if (!G2.isInSubgroupPsi(X0) || !G2.isInSubgroupPsi(X1)) return false;
+        return combinedCheck(cm, sig, Util.serializeG2(this.hatG), Util.serializeG2(X0), Util.serializeG2(X1));
+    }
+
+    /** 调用方保证公钥在子群内；hatS 在这里检查 */
+    private boolean combinedCheck(CM cm, Sig sig, byte[] hatGEnc, byte[] x0Enc, byte[] x1Enc) throws Exception {
+        if (!G2.isInSubgroupPsi(sig.hatS)) return false;
+        Scalar b = randomExponent();
+        Scalar c = randomExponent();
+
+        Point P1 = FixedBaseTable.of(this.g).mul(b).add(Point.mul2(Scalar.one(), sig.Z, c, sig.T).neg());
+        Point P2 = this.g.add(sig.S.mul(b).neg());
+        Point P3 = cm.C0.add(FixedBaseTable.of(this.g).mul(c));
+        Point P4 = cm.C1.add(FixedBaseTable.of(this.h).mul(c));
+
+        return pairing(new G1Point[]{P1.p, P2.p, P3.p, P4.p},
+                new byte[][]{Util.serializeG2(sig.hatS), hatGEnc, x0Enc, x1Enc});
+    }
+
+    /** 128 位随机指数：G2 输入都在子群内时，合并后的等式被伪造通过的概率 ≤ 2⁻¹²⁸ */
+    private static Scalar randomExponent() {
+        return new Scalar(new BigInteger(128, RNG));
+    }
+
     public AuthInfo rdmAC(CM cm, Sig sig, Scalar r){
         Scalar s = Scalar.random();
         Scalar sInv = s.inv();
@@ -224,6 +368,187 @@ public class RSUC {
         }
     }
 
+    /** 同 {@link #vfUpd(CM, Scalar, CM, Sig, G2Point, G2Point)}，签名用一次多配对验证 */
+    public boolean vfUpd(CM cm, Scalar a, CM cm_, Sig sig, VerifyingKey key) throws Exception {
+        if (!cm.C0.equals(cm_.C0)){
+            return false;
+        }
+
+        Point C1_ = cm.C1.add(this.g.mul(a));
+
+        if (!C1_.equals(cm_.C1)){
+            return false;
+        }
+
+        return vfAuthCombined(cm_, sig, key);
+    }
+
+    /**
+     * 批量验证同一公钥下的多个认证承诺。第 i 个签名的三个等式分别乘以随机指数 aᵢ、bᵢ、cᵢ 后相乘：
+     * <pre>
+     *   Π e(Σ -aᵢ·Zᵢ - cᵢ·Tᵢ + bᵢ·g, hatSᵢ) · e(Σ aᵢ·g - bᵢ·Sᵢ, hatG)
+     *     · e(Σ aᵢ·C0ᵢ + cᵢ·g, X0) · e(Σ aᵢ·C1ᵢ + cᵢ·h, X1) == 1
+     * </pre>
+     * hatG、X0、X1 各只配对一次，hatS 相同的签名合并为一项，共 3 + (不同 hatS 个数) 个配对、一次最终幂。
+     * <p>
+     * 与 {@link #vfAuthCombined} 一样，128 位随机指数只在 G2 输入都属于 r 阶子群时可靠，
+     * 所以先对每个不同的 hatS 做一次 {@link G2#isInSubgroupPsi}，不通过直接返回 false；
+     * 之后任一签名无效时除 2⁻¹²⁸ 的概率外返回 false。
+     */
+    public boolean vfAuthBatch(List<CM> cms, List<Sig> sigs, VerifyingKey key) throws Exception {
+        if (cms.size() != sigs.size()) throw new IllegalArgumentException("len mismatch");
+        checkKey(key);
+        int n = cms.size();
+        if (n == 0) return true;
+        if (n == 1) return vfAuthCombined(cms.get(0), sigs.get(0), key);
+
+        Map<G2Point, List<Integer>> byHatS = groupByHatS(sigs);
+        for (G2Point hatS : byHatS.keySet())
+            if (!G2.isInSubgroupPsi(hatS)) return false;
+        return batchCheck(cms, sigs, key, byHatS);
+    }
+
+    private void checkKey(VerifyingKey key) {
+        if (!key.matches(this))
+            throw new IllegalArgumentException("verifying key prepared for different parameters");
+    }
+
+    /** 按 hatS 分组，保持首次出现的顺序 */
+    private static Map<G2Point, List<Integer>> groupByHatS(List<Sig> sigs) {
+        Map<G2Point, List<Integer>> byHatS = new LinkedHashMap<>();
+        for (int i = 0; i < sigs.size(); i++)
+            byHatS.computeIfAbsent(sigs.get(i).hatS, k -> new ArrayList<>()).add(i);
+        return byHatS;
+    }
+
+    /** 合并后的多配对；调用方已确认全部 hatS 在子群内 */
+    private boolean batchCheck(List<CM> cms, List<Sig> sigs, VerifyingKey key, Map<G2Point, List<Integer>> byHatS) throws Exception {
+        int n = cms.size();
+        if (n == 1) return combinedCheck(cms.get(0), sigs.get(0), key.hatGEnc, key.x0Enc, key.x1Enc);
+
+        Scalar[] a = new Scalar[n], b = new Scalar[n], c = new Scalar[n];
+        List<Point> gPts = new ArrayList<>(n + 1), x0Pts = new ArrayList<>(n + 1), x1Pts = new ArrayList<>(n + 1);
+        List<Scalar> gSc = new ArrayList<>(n + 1), x0Sc = new ArrayList<>(n + 1), x1Sc = new ArrayList<>(n + 1);
+        Scalar sumA = Scalar.zero(), sumC = Scalar.zero();
+        for (int i = 0; i < n; i++) {
+            a[i] = randomExponent(); b[i] = randomExponent(); c[i] = randomExponent();
+            sumA = sumA.add(a[i]);
+            sumC = sumC.add(c[i]);
+            gPts.add(sigs.get(i).S);  gSc.add(b[i].neg());
+            x0Pts.add(cms.get(i).C0); x0Sc.add(a[i]);
+            x1Pts.add(cms.get(i).C1); x1Sc.add(a[i]);
+        }
+        gPts.add(this.g);  gSc.add(sumA);
+        x0Pts.add(this.g); x0Sc.add(sumC);
+        x1Pts.add(this.h); x1Sc.add(sumC);
+
+        G1Point[] e_l = new G1Point[byHatS.size() + 3];
+        byte[][] e_r = new byte[byHatS.size() + 3][];
+        int k = 0;
+        for (Map.Entry<G2Point, List<Integer>> group : byHatS.entrySet()) {
+            List<Point> pts = new ArrayList<>();
+            List<Scalar> sc = new ArrayList<>();
+            Scalar sumB = Scalar.zero();
+            for (int i : group.getValue()) {
+                pts.add(sigs.get(i).Z); sc.add(a[i].neg());
+                pts.add(sigs.get(i).T); sc.add(c[i].neg());
+                sumB = sumB.add(b[i]);
+            }
+            pts.add(this.g); sc.add(sumB);
+            e_l[k] = Point.msm(pts, sc).p;
+            e_r[k++] = Util.serializeG2(group.getKey());
+        }
+        e_l[k] = Point.msm(gPts, gSc).p;
+        e_r[k++] = key.hatGEnc;
+        e_l[k] = Point.msm(x0Pts, x0Sc).p;
+        e_r[k++] = key.x0Enc;
+        e_l[k] = Point.msm(x1Pts, x1Sc).p;
+        e_r[k] = key.x1Enc;
+        return pairing(e_l, e_r);
+    }
+
+    /**
+     * 批量版 vfUpd：一个结算窗口内多个 payee 通道的更新。
+     * 先逐项检查 C0ᵢ′ == C0ᵢ、C1ᵢ′ == C1ᵢ + aᵢ·g（aᵢ·g 查 g 的固定基点表，与 C1ᵢ 在 Jacobian 下相加，
+     * 全部结果一次批量归一化）以及 hatSᵢ 在子群内，再把所有签名并入 {@link #vfAuthBatch} 的一次多配对。
+     *
+     * @param cms     更新前的承诺
+     * @param amounts 各通道的更新金额 aᵢ
+     * @param cms_    hub 返回的新承诺
+     * @param sigs    新承诺上的签名
+     */
+    public boolean vfUpdBatch(List<CM> cms, List<Scalar> amounts, List<CM> cms_, List<Sig> sigs,
+                              VerifyingKey key) throws Exception {
+        checkKey(key);
+        boolean[] ok = updMatches(cms, amounts, cms_, sigs);
+        for (boolean b : ok) if (!b) return false;
+        return sigs.isEmpty() || batchCheck(cms_, sigs, key, groupByHatS(sigs));
+    }
+
+    /**
+     * 找出批量更新中无效的下标：承诺不匹配或 hatS 不在子群内的直接列出，其余签名整批通过即结束，
+     * 否则二分递归，t 个坏签名约需 O(t·log n) 次批量验证。
+     */
+    public List<Integer> vfUpdFailures(List<CM> cms, List<Scalar> amounts, List<CM> cms_, List<Sig> sigs,
+                                       VerifyingKey key) throws Exception {
+        checkKey(key);
+        boolean[] ok = updMatches(cms, amounts, cms_, sigs);
+        List<Integer> rest = new ArrayList<>(ok.length);
+        List<Integer> bad = new ArrayList<>();
+        for (int i = 0; i < ok.length; i++) {
+            if (ok[i]) rest.add(i);
+            else bad.add(i);
+        }
+        List<CM> restCms = new ArrayList<>(rest.size());
+        List<Sig> restSigs = new ArrayList<>(rest.size());
+        for (int i : rest) {
+            restCms.add(cms_.get(i));
+            restSigs.add(sigs.get(i));
+        }
+        List<Integer> badSigs = new ArrayList<>();
+        bisect(restCms, restSigs, key, 0, rest.size(), badSigs);
+        for (int j : badSigs) bad.add(rest.get(j));
+        Collections.sort(bad);
+        return bad.isEmpty() ? Collections.emptyList() : bad;
+    }
+
+    private void bisect(List<CM> cms, List<Sig> sigs, VerifyingKey key, int from, int to, List<Integer> bad) throws Exception {
+        if (from >= to) return;
+        List<Sig> part = sigs.subList(from, to);
+        if (batchCheck(cms.subList(from, to), part, key, groupByHatS(part))) return;
+        if (to - from == 1) {
+            bad.add(from);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        bisect(cms, sigs, key, from, mid, bad);
+        bisect(cms, sigs, key, mid, to, bad);
+    }
+
+    /**
+     * 逐项比较 C0ᵢ′ == C0ᵢ 与 C1ᵢ′ == C1ᵢ + aᵢ·g（aᵢ·g + C1ᵢ 全部在 Jacobian 下算完后一次归一化），
+     * 并对每个不同的 hatS 检查一次子群
+     */
+    private boolean[] updMatches(List<CM> cms, List<Scalar> amounts, List<CM> cms_, List<Sig> sigs) {
+        int n = cms.size();
+        if (amounts.size() != n || cms_.size() != n || sigs.size() != n)
+            throw new IllegalArgumentException("len mismatch");
+        FixedBaseTable gTable = FixedBaseTable.of(this.g);
+        G1.JacobianPoint[] jac = new G1.JacobianPoint[n];
+        for (int i = 0; i < n; i++)
+            jac[i] = G1.jacobianAddMixed(gTable.mulJacobian(amounts.get(i).toBigInt()), cms.get(i).C1.p);
+        G1Point[] c1 = G1.batchToAffine(jac);
+
+        boolean[] ok = new boolean[n];
+        for (int i = 0; i < n; i++)
+            ok[i] = cms.get(i).C0.equals(cms_.get(i).C0) && c1[i].equals(cms_.get(i).C1.p);
+        for (Map.Entry<G2Point, List<Integer>> group : groupByHatS(sigs).entrySet()) {
+            if (G2.isInSubgroupPsi(group.getKey())) continue;
+            for (int i : group.getValue()) ok[i] = false;
+        }
+        return ok;
+    }
+
     public static class AuthInfo{
         public CM cm;
         public Sig sig;
@@ -233,10 +558,19 @@ public class RSUC {
             this.sig = sig;
         }
 
+        /** 压缩点的二进制编码，见 {@link AuthInfoCodec} */
+        public byte[] toBytes(){
+            return AuthInfoCodec.encode(this, true);
+        }
+
+        public static AuthInfo fromBytes(ByteBuffer buf){
+            return AuthInfoCodec.decodeAuthInfo(buf);
+        }
+
         @Override
         public String toString(){
             return cm.C0.toString()
-                    + cm.C1.toBytes()
+                    + cm.C1.toString()
                     + sig.Z.toString()
                     + sig.S.toString()
                     + sig.T.toString()
@@ -258,6 +592,64 @@ public class RSUC {
         }
     }
 
+    /**
+     * 签名密钥及只依赖密钥的预计算量：K = x0·g + x1·h 与它的固定基点表。
+     * 每次签名的 T = s⁻¹·K 由此查表得到，不再重算 x0·g、x1·h。
+     */
+    public static class PreparedSigningKey{
+        public final KeyPair keyPair;
+        public final Point K;
+        final Point g;
+        final Point h;
+        final FixedBaseTable kTable;
+
+        PreparedSigningKey(RSUC rsuc, KeyPair keyPair) {
+            this.keyPair = keyPair;
+            this.g = rsuc.g;
+            this.h = rsuc.h;
+            this.K = Point.mul2(keyPair.x0, rsuc.g, keyPair.x1, rsuc.h);
+            this.kTable = new FixedBaseTable(K);
+        }
+
+        /** 是否可用于给定参数下的签名 */
+        public boolean matches(RSUC rsuc, KeyPair keyPair) {
+            return this.keyPair == keyPair && g.equals(rsuc.g) && h.equals(rsuc.h);
+        }
+    }
+
+    /**
+     * 一个 hub 公钥 (X0, X1) 的验证上下文：建立时做一次曲线与子群检查，
+     * X0、X1、hatG 的配对编码预先算好，每次 vfAuth 只需编码签名里的点。
+     */
+    public static class VerifyingKey{
+        public final G2Point X0;
+        public final G2Point X1;
+        final G2Point hatG;
+        final Point g;
+        final Point h;
+        final byte[] x0Enc;
+        final byte[] x1Enc;
+        final byte[] hatGEnc;
+
+        VerifyingKey(RSUC rsuc, G2Point X0, G2Point X1) {
+            if (!G2.isInSubgroup(X0) || !G2.isInSubgroup(X1))
+                throw new IllegalArgumentException("public key is not a valid G2 point");
+            this.X0 = X0;
+            this.X1 = X1;
+            this.hatG = rsuc.hatG;
+            this.g = rsuc.g;
+            this.h = rsuc.h;
+            this.x0Enc = Util.serializeG2(X0);
+            this.x1Enc = Util.serializeG2(X1);
+            this.hatGEnc = Util.serializeG2(rsuc.hatG);
+        }
+
+        /** 是否为给定参数下建立的上下文 */
+        public boolean matches(RSUC rsuc) {
+            return hatG.equals(rsuc.hatG) && g.equals(rsuc.g) && h.equals(rsuc.h);
+        }
+    }
+
     public static class CM{
         public Point C0;
         public Point C1;
@@ -25,7 +25,27 @@ public class Hub {
         this.value = value;
     }
 
+    /** 只依赖密钥的预计算量，由 {@link #setKeyPair(RSUC, RSUC.KeyPair)} 建立 */
+    public RSUC.PreparedSigningKey preparedKey;
+
     public void setKeyPair(RSUC.KeyPair keyPair) {
         this.keyPair = keyPair;
+        this.preparedKey = null;
+    }
+
+    /** 设置密钥并一次性建立签名预计算量 */
+    public void setKeyPair(RSUC rsuc, RSUC.KeyPair keyPair) {
+        this.keyPair = keyPair;
+        this.preparedKey = rsuc.prepare(keyPair);
+    }
+
+    public RSUC.AuthInfo authCom(RSUC rsuc, Scalar v, Scalar r) {
+        if (preparedKey != null && preparedKey.matches(rsuc, keyPair)) return rsuc.authCom(v, r, preparedKey);
+        return rsuc.authCom(v, keyPair.x0, keyPair.x1, r);
+    }
+
+    public RSUC.AuthInfo updAC(RSUC rsuc, RSUC.CM cm, Scalar a) {
+        if (preparedKey != null && preparedKey.matches(rsuc, keyPair)) return rsuc.updAC(cm, a, preparedKey);
+        return rsuc.updAC(cm, a, keyPair.x0, keyPair.x1);
     }
 }
@@ -0,0 +1,213 @@
+package encryption.bulletproof;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulletproofs 聚合范围证明：一次证明 m 个值 vⱼ ∈ [0, 2^bits)，
+ * 大小只比单值证明多 2·log₂m 个点。
+ * <p>
+ * 与 {@link RangeProof} 同构，向量长度 N = bits·m，第 j 段 r₀ 加 z^{2+j}·2ⁿ；
+ * 生成器用 {@link BulletproofGens#shared}(bits, m)。
+ * Vⱼ、taux / mu / tHat 都写入 transcript；验证把 t 检查（随机权重 c）与
+ * IPP 检查合成一次 MSM，不依赖证明携带的 g2 / h2。
+ */
+public final class AggregatedRangeProof {
+
+    public final Point A, S, T1, T2;
+    public final Scalar taux, mu, tHat;
+    public final InnerProductProof ipp;
+
+    AggregatedRangeProof(Point A, Point S, Point T1, Point T2,
+                         Scalar taux, Scalar mu, Scalar tHat,
+                         InnerProductProof ipp) {
+        this.A = A; this.S = S; this.T1 = T1; this.T2 = T2;
+        this.taux = taux; this.mu = mu; this.tHat = tHat; this.ipp = ipp;
+    }
+
+    /* -------------------------- Prover -------------------------- */
+
+    /**
+     * @param v      m 个值，按无符号 bits 位解释
+     * @param blinds 各值承诺 Vⱼ = vⱼ·g + blindⱼ·h 的盲因子
+     * @param gens   至少 bits·m 个生成器
+     */
+    public static AggregatedRangeProof prove(long[] v, Scalar[] blinds, int bits,
+                                             PedersenCommitment pc, BulletproofGens gens,
+                                             Transcript ts) {
+        final int m = v.length;
+        checkShape(bits, m, gens);
+        if (blinds.length != m) throw new IllegalArgumentException("len mismatch");
+        final int N = bits * m;
+
+        for (int j = 0; j < m; j++) ts.appendPoint("V", pc.commit(Scalar.fromLong(v[j]), blinds[j]));
+
+        List<Scalar> aL = new ArrayList<>(N);
+        for (long vj : v) aL.addAll(Scalar.fromBits(Scalar.toBits(vj, bits)));
+        List<Scalar> aR = Scalar.vectorSub(aL, Scalar.fill(N, Scalar.one()));
+
+        Scalar alpha = Scalar.random();
+        Scalar rho   = Scalar.random();
+        List<Scalar> sL = Scalar.randomVector(N);
+        List<Scalar> sR = Scalar.randomVector(N);
+
+        /* A = α·h + Σ_{bit=1} Gᵢ - Σ_{bit=0} Hᵢ，逐段累加 */
+        Point A = pc.h.mul(alpha);
+        for (int j = 0; j < m; j++) {
+            A = RangeProof.bitCommit(gens.G.subList(j * bits, (j + 1) * bits),
+                    gens.H.subList(j * bits, (j + 1) * bits), v[j], A);
+        }
+        Point S = pc.commitVec(gens.G.subList(0, N), gens.H.subList(0, N), sL, sR, rho);
+        ts.appendPoint("A", A);
+        ts.appendPoint("S", S);
+
+        Scalar y = ts.challengeScalar("y");
+        Scalar z = ts.challengeScalar("z");
+
+        List<Scalar> yPows = Scalar.powersOf(y, N);
+        List<Scalar> twoPows = RangeProof.twoPowers(bits);
+        List<Scalar> zPows = Scalar.powersOf(z, m + 3);               // z⁰ … z^{m+2}
+
+        List<Scalar> l0 = Scalar.vectorSub(aL, Scalar.fill(N, z));
+        List<Scalar> r0 = new ArrayList<>(N);
+        for (int i = 0; i < N; i++) {
+            Scalar zj = zPows.get(2 + i / bits);
+            r0.add(yPows.get(i).mul(aR.get(i).add(z)).add(zj.mul(twoPows.get(i % bits))));
+        }
+        List<Scalar> r1 = Scalar.hadamard(sR, yPows);
+
+        Scalar t1 = Scalar.innerProduct(l0, r1).add(Scalar.innerProduct(sL, r0));
+        Scalar t2 = Scalar.innerProduct(sL, r1);
+        Scalar tau1 = Scalar.random();
+        Scalar tau2 = Scalar.random();
+        Point T1 = pc.commit(t1, tau1);
+        Point T2 = pc.commit(t2, tau2);
+        ts.appendPoint("T1", T1);
+        ts.appendPoint("T2", T2);
+
+        Scalar x = ts.challengeScalar("x");
+
+        Scalar taux = tau1.mul(x).add(tau2.mul(x.square()));
+        for (int j = 0; j < m; j++) taux = taux.add(zPows.get(2 + j).mul(blinds[j]));
+        Scalar mu = alpha.add(rho.mul(x));
+
+        List<Scalar> l = Scalar.vectorAdd(l0, Scalar.scalarMul(sL, x));
+        List<Scalar> r = Scalar.vectorAdd(r0, Scalar.scalarMul(r1, x));
+        Scalar tHat = Scalar.innerProduct(l, r);
+
+        ts.appendScalar("taux", taux);
+        ts.appendScalar("mu", mu);
+        ts.appendScalar("tHat", tHat);
+
+        InnerProductProof ipp = InnerProductProof.prove_1(l, r, gens, y, ts);
+        return new AggregatedRangeProof(A, S, T1, T2, taux, mu, tHat, ipp);
+    }
+
+    /* ------------------------ Verifier ------------------------ */
+
+    /**
+     * c·(tHat·g + taux·h - Σ z^{2+j}·Vⱼ - δ·g - x·T1 - x²·T2)
+     *   + (IPP：a·g2 + b·h2 + ab·u + mu·h - P′ - Σ xᵢ²·Lᵢ - Σ xᵢ⁻²·Rᵢ) == 0
+     */
+    public boolean verify(List<Point> commitments, int bits,
+                          PedersenCommitment pc, BulletproofGens gens, Transcript ts) {
+        final int m = commitments.size();
+        checkShape(bits, m, gens);
+        final int N = bits * m;
+        final int rounds = Integer.numberOfTrailingZeros(N);
+        if (ipp.L.size() != rounds || ipp.R.size() != rounds) return false;
+
+        for (Point V : commitments) ts.appendPoint("V", V);
+        ts.appendPoint("A", A);
+        ts.appendPoint("S", S);
+        Scalar y = ts.challengeScalar("y");
+        Scalar z = ts.challengeScalar("z");
+        ts.appendPoint("T1", T1);
+        ts.appendPoint("T2", T2);
+        Scalar x = ts.challengeScalar("x");
+        ts.appendScalar("taux", taux);
+        ts.appendScalar("mu", mu);
+        ts.appendScalar("tHat", tHat);
+
+        Scalar[] u = new Scalar[rounds];
+        Scalar[] uInv = new Scalar[rounds];
+        for (int i = 0; i < rounds; i++) {
+            ts.appendPoint("L", ipp.L.get(i));
+            ts.appendPoint("R", ipp.R.get(i));
+            u[i] = ts.challengeScalar("x");
+            uInv[i] = u[i].inv();
+        }
+        List<Scalar> s = Scalar.vectorOfOnes(1);
+        for (int i = rounds - 1; i >= 0; i--) s = Scalar.expandAndMerge(s, uInv[i], u[i]);
+
+        Scalar c = DLogNIZK.randomWeight();
+        List<Scalar> yInvPows = Scalar.powersOf(y.inv(), N);
+        List<Scalar> twoPows = RangeProof.twoPowers(bits);
+        List<Scalar> zPows = Scalar.powersOf(z, m + 3);
+        Scalar delta = delta(y, z, bits, m, zPows);
+
+        List<Point> pts = new ArrayList<>(2 * N + 2 * rounds + 7 + m);
+        List<Scalar> sc = new ArrayList<>(2 * N + 2 * rounds + 7 + m);
+        for (int i = 0; i < N; i++) {
+            pts.add(gens.G.get(i));
+            sc.add(ipp.a.mul(s.get(i)).add(z));
+        }
+        for (int i = 0; i < N; i++) {
+            Scalar sInv = s.get(N - 1 - i);                       // sᵢ⁻¹ = s_{N-1-i}
+            Scalar zj = zPows.get(2 + i / bits).mul(twoPows.get(i % bits));
+            pts.add(gens.H.get(i));
+            sc.add(yInvPows.get(i).mul(ipp.b.mul(sInv).sub(zj)).sub(z));
+        }
+        pts.add(gens.u); sc.add(ipp.a.mul(ipp.b).sub(tHat));
+        pts.add(pc.h);   sc.add(mu.add(c.mul(taux)));
+        pts.add(pc.g);   sc.add(c.mul(tHat.sub(delta)));
+        pts.add(A);      sc.add(Scalar.one().neg());
+        pts.add(S);      sc.add(x.neg());
+        pts.add(T1);     sc.add(c.mul(x).neg());
+        pts.add(T2);     sc.add(c.mul(x.square()).neg());
+        for (int j = 0; j < m; j++) {
+            pts.add(commitments.get(j));
+            sc.add(c.mul(zPows.get(2 + j)).neg());
+        }
+        for (int i = 0; i < rounds; i++) {
+            pts.add(ipp.L.get(i)); sc.add(u[i].square().neg());
+            pts.add(ipp.R.get(i)); sc.add(uInv[i].square().neg());
+        }
+        return Point.msm(pts, sc).equals(Point.INF);
+    }
+
+    /** δ(y,z) = (z - z²)·Σ_{i<N} yⁱ - Σⱼ z^{3+j}·(2ⁿ - 1) */
+    private static Scalar delta(Scalar y, Scalar z, int bits, int m, List<Scalar> zPows) {
+        Scalar sumY = Scalar.zero();
+        for (Scalar yi : Scalar.powersOf(y, bits * m)) sumY = sumY.add(yi);
+        Scalar sumTwo = new Scalar(BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE));
+        Scalar sumZ = Scalar.zero();
+        for (int j = 0; j < m; j++) sumZ = sumZ.add(zPows.get(3 + j));
+        return z.sub(z.square()).mul(sumY).sub(sumZ.mul(sumTwo));
+    }
+
+    private static void checkShape(int bits, int m, BulletproofGens gens) {
+        if (Integer.bitCount(bits) != 1 || bits > 64)
+            throw new IllegalArgumentException("bits must be a power of 2 up to 64");
+        if (Integer.bitCount(m) != 1)
+            throw new IllegalArgumentException("number of values must be a power of 2");
+        if (gens.G.size() < bits * m)
+            throw new IllegalArgumentException("not enough generators for " + m + " x " + bits + " bits");
+    }
+
+    /* -------------------------- 编码 -------------------------- */
+
+    public byte[] toBytes() {
+        return ProofCodec.encode(this);
+    }
+
+    public static AggregatedRangeProof fromBytes(byte[] data) {
+        return fromBytes(ByteBuffer.wrap(data));
+    }
+
+    public static AggregatedRangeProof fromBytes(ByteBuffer buf) {
+        return ProofCodec.decodeAggregatedRangeProof(buf);
+    }
+}
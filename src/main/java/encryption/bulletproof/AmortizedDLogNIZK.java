@@ -0,0 +1,232 @@
+package encryption.bulletproof;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 多个离散对数关系的 AND 组合证明（摊销 / 压缩 Σ 协议，Attema–Cramer）。
+ * <p>
+ * 语句：Pⱼ = xⱼ·Gⱼ，j = 0..k-1，各语句的基点 Gⱼ 可以不同（相同亦可）。
+ * <ol>
+ *   <li>写入全部 (Gⱼ, Pⱼ) 后派生 ρ，把 k 个语句合成一个线性关系
+ *       P* = Σ ρʲ·Pⱼ = Σ wⱼ·Gⱼ，wⱼ = ρʲ·xⱼ；</li>
+ *   <li>承诺 A = Σ rⱼ·Gⱼ，唯一挑战 c，响应向量 zⱼ = rⱼ + c·wⱼ；
+ *       验证 Σ zⱼ·Gⱼ == A + c·P*。</li>
+ * </ol>
+ * {@link Proof} 为 1 个点 + k 个标量，全程一个 transcript、一个挑战。
+ * {@link CompressedProof} 不直接发送 z，而是对 ⟨z, G⟩ = A + c·P* 做对折论证，
+ * 大小为 2·⌈log₂k⌉ + 1 个点 + 1 个标量；z 本身即可公开，压缩不影响零知识性。
+ */
+public final class AmortizedDLogNIZK {
+
+    private AmortizedDLogNIZK() {}
+
+    /** 摊销证明：A 与响应向量 z */
+    public static final class Proof {
+        public final Point A;
+        public final List<Scalar> z;
+
+        public Proof(Point A, List<Scalar> z) {
+            this.A = A;
+            this.z = z;
+        }
+    }
+
+    /** 压缩证明：A、每轮 Lᵢ / Rᵢ 与折叠到底的单个响应 */
+    public static final class CompressedProof {
+        public final Point A;
+        public final List<Point> L;
+        public final List<Point> R;
+        public final Scalar z;
+
+        public CompressedProof(Point A, List<Point> L, List<Point> R, Scalar z) {
+            this.A = A;
+            this.L = L;
+            this.R = R;
+            this.z = z;
+        }
+    }
+
+    /* -------------------------- Prover -------------------------- */
+
+    /**
+     * @param G  各语句的基点 Gⱼ
+     * @param x  各语句的秘密 xⱼ（Pⱼ = xⱼ·Gⱼ）
+     * @param ts 与 verifier 同样初始化的 Transcript
+     */
+    public static Proof prove(List<Point> G, List<Scalar> x, Transcript ts) {
+        Challenges ch = commit(G, x, ts);
+        return new Proof(ch.A, ch.z);
+    }
+
+    public static CompressedProof proveCompressed(List<Point> G, List<Scalar> x, Transcript ts) {
+        Challenges ch = commit(G, x, ts);
+
+        /* 补齐到 2 的幂：多出的基点为 INF、响应为 0，不改变 ⟨z, G⟩ */
+        final int N = pow2(G.size());
+        List<Point> G0 = padded(G, N);
+        Scalar[] z = Scalar.fill(N, Scalar.zero()).toArray(new Scalar[0]);
+        for (int j = 0; j < ch.z.size(); j++) z[j] = ch.z.get(j);
+        Scalar[] w = Scalar.vectorOfOnes(N).toArray(new Scalar[0]);
+
+        /* 折叠：G′ᵢ = e·Gᵢ + G_{i+n/2}，z′ᵢ = zᵢ + e·z_{i+n/2}；
+         * L = ⟨z_lo, G_hi⟩，R = ⟨z_hi, G_lo⟩，Q′ = L + e·Q + e²·R。
+         * 折叠后的生成器只记为原始 Gⱼ 上的权重 w（同 InnerProductProof）。 */
+        List<Point> Lvec = new ArrayList<>();
+        List<Point> Rvec = new ArrayList<>();
+        int n = N;
+        while (n > 1) {
+            int n2 = n >>> 1;
+            int mask = n - 1;
+            List<Point> lPts = new ArrayList<>(N / 2);
+            List<Scalar> lSc = new ArrayList<>(N / 2);
+            List<Point> rPts = new ArrayList<>(N / 2);
+            List<Scalar> rSc = new ArrayList<>(N / 2);
+            for (int j = 0; j < N; j++) {
+                int c = j & mask;
+                if (c >= n2) {
+                    lPts.add(G0.get(j)); lSc.add(z[c - n2].mul(w[j]));
+                } else {
+                    rPts.add(G0.get(j)); rSc.add(z[c + n2].mul(w[j]));
+                }
+            }
+            Point Li = Point.msm(lPts, lSc);
+            Point Ri = Point.msm(rPts, rSc);
+            Lvec.add(Li);
+            Rvec.add(Ri);
+
+            ts.appendPoint("L", Li);
+            ts.appendPoint("R", Ri);
+            Scalar e = ts.challengeScalar("e");
+
+            for (int i = 0; i < n2; i++) z[i] = z[i].add(e.mul(z[i + n2]));
+            for (int j = 0; j < N; j++) {
+                if ((j & mask) < n2) w[j] = w[j].mul(e);
+            }
+            n = n2;
+        }
+        return new CompressedProof(ch.A, Lvec, Rvec, z[0]);
+    }
+
+    /** 写入语句、派生 ρ、承诺 A、派生 c，算出响应向量 z */
+    private static Challenges commit(List<Point> G, List<Scalar> x, Transcript ts) {
+        int k = G.size();
+        if (k == 0 || x.size() != k)
+            throw new IllegalArgumentException("len mismatch");
+
+        List<Point> P = new ArrayList<>(k);
+        for (int j = 0; j < k; j++) P.add(G.get(j).mul(x.get(j)));
+        Scalar rho = absorbStatements(G, P, ts);
+
+        List<Scalar> r = Scalar.randomVector(k);
+        Point A = Point.msm(G, r);
+        ts.appendPoint("A", A);
+        Scalar c = ts.challengeScalar("c");
+
+        List<Scalar> rhoPows = Scalar.powersOf(rho, k);
+        List<Scalar> z = new ArrayList<>(k);
+        for (int j = 0; j < k; j++) z.add(r.get(j).add(c.mul(rhoPows.get(j)).mul(x.get(j))));
+        return new Challenges(A, z);
+    }
+
+    /* ------------------------ Verifier ------------------------ */
+
+    /** Σ zⱼ·Gⱼ - A - Σ c·ρʲ·Pⱼ == 0，一次 MSM */
+    public static boolean verify(List<Point> G, List<Point> P, Proof proof, Transcript ts) {
+        int k = G.size();
+        if (k == 0 || P.size() != k || proof.z.size() != k) return false;
+
+        Scalar rho = absorbStatements(G, P, ts);
+        ts.appendPoint("A", proof.A);
+        Scalar c = ts.challengeScalar("c");
+
+        List<Scalar> rhoPows = Scalar.powersOf(rho, k);
+        List<Point> pts = new ArrayList<>(2 * k + 1);
+        List<Scalar> sc = new ArrayList<>(2 * k + 1);
+        for (int j = 0; j < k; j++) {
+            pts.add(G.get(j)); sc.add(proof.z.get(j));
+            pts.add(P.get(j)); sc.add(c.mul(rhoPows.get(j)).neg());
+        }
+        pts.add(proof.A); sc.add(Scalar.one().neg());
+        return Point.msm(pts, sc).equals(Point.INF);
+    }
+
+    /**
+     * 折叠 m 轮后 Q_m = E·Q₀ + Σᵢ Eᵢ·(Lᵢ + eᵢ²·Rᵢ)，E = Π eᵢ，Eᵢ = Π_{t>i} eₜ，
+     * 且须等于 z·Σ sⱼ·Gⱼ，sⱼ = Π_{第 i 轮 j 在前半} eᵢ。合成一次 MSM 检查。
+     */
+    public static boolean verifyCompressed(List<Point> G, List<Point> P, CompressedProof proof, Transcript ts) {
+        int k = G.size();
+        if (k == 0 || P.size() != k) return false;
+        final int N = pow2(k);
+        final int rounds = Integer.numberOfTrailingZeros(N);
+        if (proof.L.size() != rounds || proof.R.size() != rounds) return false;
+
+        Scalar rho = absorbStatements(G, P, ts);
+        ts.appendPoint("A", proof.A);
+        Scalar c = ts.challengeScalar("c");
+        Scalar[] e = new Scalar[rounds];
+        for (int i = 0; i < rounds; i++) {
+            ts.appendPoint("L", proof.L.get(i));
+            ts.appendPoint("R", proof.R.get(i));
+            e[i] = ts.challengeScalar("e");
+        }
+
+        /* sⱼ：第 i 轮对应原下标的第 (rounds-1-i) 位，0 → 前半（乘 eᵢ） */
+        List<Scalar> s = Scalar.vectorOfOnes(1);
+        for (int i = rounds - 1; i >= 0; i--) s = Scalar.expandAndMerge(s, e[i], Scalar.one());
+
+        Scalar[] suffix = new Scalar[rounds + 1];          // suffix[i] = Π_{t≥i} eₜ
+        suffix[rounds] = Scalar.one();
+        for (int i = rounds - 1; i >= 0; i--) suffix[i] = suffix[i + 1].mul(e[i]);
+        Scalar E = suffix[0];
+
+        List<Scalar> rhoPows = Scalar.powersOf(rho, k);
+        List<Point> pts = new ArrayList<>(2 * k + 2 * rounds + 1);
+        List<Scalar> sc = new ArrayList<>(2 * k + 2 * rounds + 1);
+        for (int j = 0; j < k; j++) {
+            pts.add(G.get(j)); sc.add(proof.z.mul(s.get(j)));
+            pts.add(P.get(j)); sc.add(E.mul(c).mul(rhoPows.get(j)).neg());
+        }
+        pts.add(proof.A); sc.add(E.neg());
+        for (int i = 0; i < rounds; i++) {
+            Scalar Ei = suffix[i + 1];
+            pts.add(proof.L.get(i)); sc.add(Ei.neg());
+            pts.add(proof.R.get(i)); sc.add(Ei.mul(e[i].square()).neg());
+        }
+        return Point.msm(pts, sc).equals(Point.INF);
+    }
+
+    /* -------------------------- 工具 -------------------------- */
+
+    private static Scalar absorbStatements(List<Point> G, List<Point> P, Transcript ts) {
+        ts.appendScalar("k", Scalar.fromLong(G.size()));
+        for (int j = 0; j < G.size(); j++) {
+            ts.appendPoint("G", G.get(j));
+            ts.appendPoint("P", P.get(j));
+        }
+        return ts.challengeScalar("rho");
+    }
+
+    private static int pow2(int k) {
+        return k <= 1 ? 1 : Integer.highestOneBit(k - 1) << 1;
+    }
+
+    private static List<Point> padded(List<Point> G, int n) {
+        if (G.size() == n) return G;
+        List<Point> out = new ArrayList<>(n);
+        out.addAll(G);
+        while (out.size() < n) out.add(Point.INF);
+        return out;
+    }
+
+    private static final class Challenges {
+        final Point A;
+        final List<Scalar> z;
+
+        Challenges(Point A, List<Scalar> z) {
+            this.A = A;
+            this.z = z;
+        }
+    }
+}
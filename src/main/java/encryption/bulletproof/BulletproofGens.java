@@ -1,7 +1,35 @@
 package encryption.bulletproof;
 
+import org.aion.tetryon.Fp;
+import org.aion.tetryon.G1;
+import org.aion.tetryon.G1Point;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Bulletproofs 向量生成器：Gᵢ、Hᵢ、u
@@ -12,6 +40,35 @@ public final class BulletproofGens {
     public final List<Point> H;
     public final Point u;
 
+    /* -------- 进程级共享注册表 + 磁盘缓存 -------- */
+
+    /**
+     * 缓存目录，须用 -Dbulletproof.gens.dir=... 显式指定，未指定时不读写缓存。
+     * 目录必须是属主为当前用户、权限仅属主可访问 (0700) 的真实目录（不能是符号链接），
+     * 不存在时按 0700 创建；不满足条件或文件系统不支持 POSIX 权限时同样不使用缓存。
+     * 能写入缓存的人可以植入离散对数关系已知的 G / H / u 从而破坏 range proof 的可靠性，
+     * 所以切勿指向共享目录。
+     */
+    public static final String CACHE_DIR_PROPERTY = "bulletproof.gens.dir";
+
+    /** 读缓存时除 u、首尾下标外，再随机抽查的 G / H 下标数 */
+    private static final int SPOT_CHECKS = 4;
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIR = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+    private static final SecureRandom RNG = new SecureRandom();
+
+    /* 文件格式 v1（大端）：
+     *   magic "BPGN" | version:int | bits:int | parties:int | n:int
+     *   u:64B | G₀…Gₙ₋₁:64B each | H₀…Hₙ₋₁:64B each | SHA-256(前面全部):32B
+     * 点编码与 Util.serializeG1 相同 (x ‖ y，各 32 字节)。 */
+    private static final int MAGIC = 0x4250474E;    // "BPGN"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_LEN = 20;
+    private static final int POINT_LEN = 64;
+    private static final int DIGEST_LEN = 32;
+
+    private static final Map<Long, BulletproofGens> SHARED = new ConcurrentHashMap<>();
+
     /**
      * @param bits    单值位宽 (8 / 16 / 32 / 64 / …), 必须是 2 的幂
      * @param parties 可并行证明数量 (聚合证明时用)，单值填 1
@@ -21,9 +78,193 @@ public final class BulletproofGens {
         G = new ArrayList<>(n);
         H = new ArrayList<>(n);
         for (int i = 0; i < n; i++) {
-            G.add(Point.hashToPoint(("BP.G" + i).getBytes()));
-            H.add(Point.hashToPoint(("BP.H" + i).getBytes()));
+            G.add(deriveG(i));
+            H.add(deriveH(i));
+        }
+        u = deriveU();
+    }
+
+    private static Point deriveG(int i) {
+        return Point.hashToPoint(("BP.G" + i).getBytes());
+    }
+
+    private static Point deriveH(int i) {
+        return Point.hashToPoint(("BP.H" + i).getBytes());
+    }
+
+    private static Point deriveU() {
+        return Point.hashToPoint("BP.u".getBytes());
+    }
+
+    private BulletproofGens(List<Point> G, List<Point> H, Point u) {
+        this.G = Collections.unmodifiableList(G);
+        this.H = Collections.unmodifiableList(H);
+        this.u = u;
+    }
+
+    /**
+     * 进程内共享的生成器：同一 (bits, parties) 只构造一次。
+     * 配置了 {@link #CACHE_DIR_PROPERTY} 时优先从缓存文件 mmap 读入；文件缺失或校验失败则重新
+     * hashToPoint 并写回缓存。返回实例的 G / H 为只读列表。
+     */
+    public static BulletproofGens shared(int bits, int parties) {
+        if (bits <= 0 || parties <= 0)
+            throw new IllegalArgumentException("bits and parties must be positive");
+        long key = ((long) bits << 32) | (parties & 0xffffffffL);
+        return SHARED.computeIfAbsent(key, k -> loadOrCreate(bits, parties));
+    }
+
+    private static BulletproofGens loadOrCreate(int bits, int parties) {
+        Path file = cacheFile(bits, parties);
+        if (file == null) {
+            BulletproofGens fresh = new BulletproofGens(bits, parties);
+            return new BulletproofGens(fresh.G, fresh.H, fresh.u);
+        }
+        try {
+            if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+                BulletproofGens gens = load(file, bits, parties);
+                if (gens != null) return gens;
+            }
+        } catch (IOException ignored) {
+            // 缓存不可读时回退到重新生成
+        }
+
+        BulletproofGens fresh = new BulletproofGens(bits, parties);
+        BulletproofGens gens = new BulletproofGens(fresh.G, fresh.H, fresh.u);
+        try {
+            store(file, gens, bits, parties);
+        } catch (IOException ignored) {
+            // 缓存只是加速手段，写失败不影响本进程使用
+        }
+        return gens;
+    }
+
+    /** 缓存文件路径；未配置目录或目录不是当前用户私有时返回 null */
+    static Path cacheFile(int bits, int parties) {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY);
+        if (dir == null || dir.isEmpty()) return null;
+        Path d = Paths.get(dir).toAbsolutePath();
+        try {
+            if (!Files.exists(d, LinkOption.NOFOLLOW_LINKS))
+                Files.createDirectories(d, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIR));
+            if (!isPrivateDir(d)) return null;
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+        return d.resolve("bp-gens-v" + FORMAT_VERSION + "-" + bits + "x" + parties + ".bin");
+    }
+
+    /** 目录本身（不跟随符号链接）属于当前用户，且组和其他人没有任何权限 */
+    private static boolean isPrivateDir(Path d) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(d, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+        if (view == null) return false;
+        PosixFileAttributes attrs = view.readAttributes();
+        if (!attrs.isDirectory() || attrs.isSymbolicLink()) return false;
+        if (!attrs.owner().getName().equals(System.getProperty("user.name"))) return false;
+        Set<PosixFilePermission> perms = EnumSet.copyOf(attrs.permissions());
+        perms.retainAll(EnumSet.complementOf(EnumSet.copyOf(OWNER_ONLY_DIR)));
+        return perms.isEmpty();
+    }
+
+    /**
+     * 读取并校验缓存文件；格式、摘要不符，有点不在曲线上，或抽查的点与 hashToPoint 重新推导的
+     * 结果不一致时返回 null。SHA-256 尾只防意外损坏，与推导的绑定靠抽查：u、G₀/H₀、Gₙ₋₁/Hₙ₋₁
+     * 以及每次随机选取的 {@value #SPOT_CHECKS} 个下标。
+     */
+    private static BulletproofGens load(Path file, int bits, int parties) throws IOException {
+        int n = bits * parties;
+        long expected = HEADER_LEN + (long) (2 * n + 1) * POINT_LEN + DIGEST_LEN;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, LinkOption.NOFOLLOW_LINKS)) {
+            if (ch.size() != expected) return null;
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, expected);
+
+            if (buf.getInt(0) != MAGIC || buf.getInt(4) != FORMAT_VERSION
+                    || buf.getInt(8) != bits || buf.getInt(12) != parties || buf.getInt(16) != n)
+                return null;
+
+            int bodyLen = (int) (expected - DIGEST_LEN);
+            MessageDigest md = sha256();
+            ByteBuffer body = buf.duplicate();
+            body.position(0).limit(bodyLen);
+            md.update(body);
+            byte[] digest = new byte[DIGEST_LEN];
+            ByteBuffer tail = buf.duplicate();
+            tail.position(bodyLen);
+            tail.get(digest);
+            if (!Arrays.equals(md.digest(), digest)) return null;
+
+            int off = HEADER_LEN;
+            Point u = readPoint(buf, off);
+            off += POINT_LEN;
+            List<Point> G = new ArrayList<>(n);
+            for (int i = 0; i < n; i++, off += POINT_LEN) G.add(readPoint(buf, off));
+            List<Point> H = new ArrayList<>(n);
+            for (int i = 0; i < n; i++, off += POINT_LEN) H.add(readPoint(buf, off));
+            if (u == null || G.contains(null) || H.contains(null)) return null;
+            if (!matchesDerivation(G, H, u)) return null;
+            return new BulletproofGens(G, H, u);
+        }
+    }
+
+    private static boolean matchesDerivation(List<Point> G, List<Point> H, Point u) {
+        int n = G.size();
+        if (!u.equals(deriveU())) return false;
+        int[] idx = new int[SPOT_CHECKS + 2];
+        idx[0] = 0;
+        idx[1] = n - 1;
+        for (int k = 2; k < idx.length; k++) idx[k] = RNG.nextInt(n);
+        for (int i : idx)
+            if (!G.get(i).equals(deriveG(i)) || !H.get(i).equals(deriveH(i))) return false;
+        return true;
+    }
+
+    /** 先写临时文件再原子替换，避免并发进程读到半截文件 */
+    private static void store(Path file, BulletproofGens gens, int bits, int parties) throws IOException {
+        int n = bits * parties;
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_LEN + (2 * n + 1) * POINT_LEN + DIGEST_LEN);
+        buf.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(bits).putInt(parties).putInt(n);
+        buf.put(gens.u.toBytes());
+        for (Point g : gens.G) buf.put(g.toBytes());
+        for (Point h : gens.H) buf.put(h.toBytes());
+        MessageDigest md = sha256();
+        md.update(buf.array(), 0, buf.position());
+        buf.put(md.digest());
+        buf.flip();
+
+        Path dir = file.getParent();
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp",
+                PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE));
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE, LinkOption.NOFOLLOW_LINKS)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** 读一个点；坐标不规范、是无穷远点或不在曲线上时返回 null */
+    private static Point readPoint(ByteBuffer buf, int off) {
+        byte[] x = new byte[32];
+        byte[] y = new byte[32];
+        ByteBuffer src = buf.duplicate();
+        src.position(off);
+        src.get(x).get(y);
+        BigInteger bx = new BigInteger(1, x);
+        BigInteger by = new BigInteger(1, y);
+        if (bx.compareTo(Fp.FIELD_MODULUS) >= 0 || by.compareTo(Fp.FIELD_MODULUS) >= 0) return null;
+        G1Point p = new G1Point(new Fp(bx), new Fp(by));
+        if (p.isZero() || !G1.isOnCurve(p)) return null;
+        return new Point(p);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
         }
-        u = Point.hashToPoint("BP.u".getBytes());
     }
 }
\ No newline at end of file
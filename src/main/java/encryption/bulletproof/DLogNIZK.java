@@ -1,5 +1,14 @@
 package encryption.bulletproof;
 
+import org.aion.tetryon.G1;
+import org.aion.tetryon.G1Point;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 非交互式离散对数零知识证明（NIZK）：
  * 1) 单基点 Schnorr 证明
@@ -9,6 +18,8 @@ package encryption.bulletproof;
  */
 public final class DLogNIZK {
 
+    private static final SecureRandom RNG = new SecureRandom();
+
     /** ------------------- 单基点证明 ------------------- **/
 
     public static class SingleBaseProof {
@@ -19,6 +30,14 @@ public final class DLogNIZK {
             this.R = R;
             this.s = s;
         }
+
+        public byte[] toBytes() {
+            return ProofCodec.encode(this);
+        }
+
+        public static SingleBaseProof fromBytes(ByteBuffer buf) {
+            return ProofCodec.decodeSingleBaseProof(buf);
+        }
     }
 
     /**
@@ -46,8 +65,8 @@ public final class DLogNIZK {
         Point R = G.mul(r);
 
         // 4. 写入 transcript: "P" || P || "R" || R
-        ts.appendPoint("P", P.toBytes());
-        ts.appendPoint("R", R.toBytes());
+        ts.appendPoint("P", P);
+        ts.appendPoint("R", R);
 
         // 5. 派生挑战 c = H(...)
         Scalar c = ts.challengeScalar("c");
@@ -72,21 +91,52 @@ public final class DLogNIZK {
                                        SingleBaseProof proof,
                                        Transcript ts) {
         // 1. 将公钥 P、承诺 R 写入 transcript，挑战应与 Prove 时一致
-        ts.appendPoint("P", P.toBytes());
-        ts.appendPoint("R", proof.R.toBytes());
+        ts.appendPoint("P", P);
+        ts.appendPoint("R", proof.R);
 
         // 2. 重放挑战 c
         Scalar c = ts.challengeScalar("c");
 
-        // 3. 计算左侧 s·G
-        Point sG = G.mul(proof.s);
+        // 3. s·G - c·P 应等于承诺 R（一次双标量乘）
+        Point lhs = Point.mul2(proof.s, G, c.neg(), P);
 
-        // 4. 计算右侧 R + c·P
-        Point cP = P.mul(c);
-        Point rhs = proof.R.add(cP);
+        // 4. 比较是否相等
+        return lhs.equals(proof.R);
+    }
 
-        // 5. 比较是否相等
-        return sG.equals(rhs);
+    /**
+     * 批量验证单基点证明：随机权重 wᵢ 合并 N 个方程
+     *   (Σ wᵢ·sᵢ)·G == Σ wᵢ·Rᵢ + Σ wᵢ·cᵢ·Pᵢ
+     * G 侧用共享的固定基点表，其余一次 MSM。任一证明无效时（除可忽略概率外）返回 false。
+     *
+     * @param Ps          各证明的公钥
+     * @param transcripts 与各证明 Prove 时同样初始化的 Transcript，一一对应
+     */
+    public static boolean verifySingleBatch(Point G, List<Point> Ps,
+                                            List<SingleBaseProof> proofs,
+                                            List<Transcript> transcripts) {
+        int n = proofs.size();
+        if (Ps.size() != n || transcripts.size() != n)
+            throw new IllegalArgumentException("len mismatch");
+        if (n == 0) return true;
+
+        Scalar sumS = Scalar.zero();
+        List<Point> pts = new ArrayList<>(2 * n);
+        List<Scalar> sc = new ArrayList<>(2 * n);
+        for (int i = 0; i < n; i++) {
+            SingleBaseProof proof = proofs.get(i);
+            Transcript ts = transcripts.get(i);
+            ts.appendPoint("P", Ps.get(i));
+            ts.appendPoint("R", proof.R);
+            Scalar c = ts.challengeScalar("c");
+
+            Scalar w = n == 1 ? Scalar.one() : randomWeight();
+            sumS = sumS.add(w.mul(proof.s));
+            pts.add(proof.R);   sc.add(w);
+            pts.add(Ps.get(i)); sc.add(w.mul(c));
+        }
+        Point lhs = FixedBaseTable.of(G).mul(sumS);
+        return lhs.equals(Point.msm(pts, sc));
     }
 
 
@@ -102,6 +152,14 @@ public final class DLogNIZK {
             this.s1 = s1;
             this.s2 = s2;
         }
+
+        public byte[] toBytes() {
+            return ProofCodec.encode(this);
+        }
+
+        public static TwoBaseProof fromBytes(ByteBuffer buf) {
+            return ProofCodec.decodeTwoBaseProof(buf);
+        }
     }
 
     /**
@@ -124,24 +182,20 @@ public final class DLogNIZK {
                                             Scalar a, Scalar b,
                                             Transcript ts) {
         // 1. 计算公钥 P = a·G + b·H
-        Point aG = G.mul(a);
-        Point bH = H.mul(b);
-        Point P  = aG.add(bH);
+        Point P  = Point.mul2(a, G, b, H);
 
         // 2. 随机选 r1, r2
         Scalar r1 = Scalar.random();
         Scalar r2 = Scalar.random();
 
         // 3. 计算承诺 R = r1·G + r2·H
-        Point r1G = G.mul(r1);
-        Point r2H = H.mul(r2);
-        Point R   = r1G.add(r2H);
+        Point R   = Point.mul2(r1, G, r2, H);
 
         // 4. 写入 transcript: "G"||G, "H"||H, "P"||P, "R"||R
-        ts.appendPoint("G", G.toBytes());
-        ts.appendPoint("H", H.toBytes());
-        ts.appendPoint("P", P.toBytes());
-        ts.appendPoint("R", R.toBytes());
+        ts.appendPoint("G", G);
+        ts.appendPoint("H", H);
+        ts.appendPoint("P", P);
+        ts.appendPoint("R", R);
 
         // 5. 派生挑战 c
         Scalar c = ts.challengeScalar("c");
@@ -168,18 +222,16 @@ public final class DLogNIZK {
                                         TwoBaseProof proof,
                                         Transcript ts) {
         // 1. 写入 transcript：G, H, P, R
-        ts.appendPoint("G", G.toBytes());
-        ts.appendPoint("H", H.toBytes());
-        ts.appendPoint("P", P.toBytes());
-        ts.appendPoint("R", proof.R.toBytes());
+        ts.appendPoint("G", G);
+        ts.appendPoint("H", H);
+        ts.appendPoint("P", P);
+        ts.appendPoint("R", proof.R);
 
         // 2. 重放挑战 c
         Scalar c = ts.challengeScalar("c");
 
         // 3. 计算左侧 s1·G + s2·H
-        Point s1G = G.mul(proof.s1);
-        Point s2H = H.mul(proof.s2);
-        Point lhs = s1G.add(s2H);
+        Point lhs = Point.mul2(proof.s1, G, proof.s2, H);
 
         // 4. 计算右侧 R + c·P
         Point cP  = P.mul(c);
@@ -188,4 +240,51 @@ public final class DLogNIZK {
         // 5. 比较
         return lhs.equals(rhs);
     }
+
+    /**
+     * 批量验证同一对 (G, H) 上的双基点证明：
+     *   (Σ wᵢ·s1ᵢ)·G + (Σ wᵢ·s2ᵢ)·H == Σ wᵢ·Rᵢ + Σ wᵢ·cᵢ·Pᵢ
+     * G、H 两侧用共享的固定基点表，其余一次 MSM。
+     *
+     * @param Ps          各证明的公开承诺 P = a·G + b·H
+     * @param transcripts 与各证明 Prove 时同样初始化的 Transcript，一一对应
+     */
+    public static boolean verifyTwoBaseBatch(Point G, Point H, List<Point> Ps,
+                                             List<TwoBaseProof> proofs,
+                                             List<Transcript> transcripts) {
+        int n = proofs.size();
+        if (Ps.size() != n || transcripts.size() != n)
+            throw new IllegalArgumentException("len mismatch");
+        if (n == 0) return true;
+
+        Scalar sum1 = Scalar.zero();
+        Scalar sum2 = Scalar.zero();
+        List<Point> pts = new ArrayList<>(2 * n);
+        List<Scalar> sc = new ArrayList<>(2 * n);
+        for (int i = 0; i < n; i++) {
+            TwoBaseProof proof = proofs.get(i);
+            Transcript ts = transcripts.get(i);
+            ts.appendPoint("G", G);
+            ts.appendPoint("H", H);
+            ts.appendPoint("P", Ps.get(i));
+            ts.appendPoint("R", proof.R);
+            Scalar c = ts.challengeScalar("c");
+
+            Scalar w = n == 1 ? Scalar.one() : randomWeight();
+            sum1 = sum1.add(w.mul(proof.s1));
+            sum2 = sum2.add(w.mul(proof.s2));
+            pts.add(proof.R);   sc.add(w);
+            pts.add(Ps.get(i)); sc.add(w.mul(c));
+        }
+        G1.JacobianPoint acc = G1.jacobianAdd(
+                FixedBaseTable.of(G).mulJacobian(sum1.toBigInt()),
+                FixedBaseTable.of(H).mulJacobian(sum2.toBigInt()));
+        G1Point lhs = acc.toAffine();
+        return (lhs.isZero() ? Point.INF : new Point(lhs)).equals(Point.msm(pts, sc));
+    }
+
+    /** 128 位随机权重：伪造通过批量验证的概率 ≤ 2⁻¹²⁸，MSM 标量也更短 */
+    static Scalar randomWeight() {
+        return new Scalar(new BigInteger(128, RNG));
+    }
 }
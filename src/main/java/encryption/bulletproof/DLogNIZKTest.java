@@ -1,6 +1,8 @@
 package encryption.bulletproof;
 
 import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 测试单基点和双基点非交互式离散对数零知识证明，
@@ -84,5 +86,81 @@ public class DLogNIZKTest {
         double avgVerifyTwo = totalVerifyTimeTwo / (double) ITERATIONS / 1_000_000.0;
         System.out.printf("Average Two-base Prove Time: %.3f ms%n", avgProveTwo);
         System.out.printf("Average Two-base Verify Time: %.3f ms%n", avgVerifyTwo);
+        System.out.println();
+
+        // 批量验证测试：ITERATIONS 个证明一次验证
+        System.out.println("=== Batch Verification Timing Test (" + ITERATIONS + " proofs) ===");
+        List<Point> singleP = new ArrayList<>();
+        List<DLogNIZK.SingleBaseProof> singleProofs = new ArrayList<>();
+        List<Point> twoP = new ArrayList<>();
+        List<DLogNIZK.TwoBaseProof> twoProofs = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            Scalar a = Scalar.random();
+            Scalar b = Scalar.random();
+            singleP.add(G.mul(a));
+            singleProofs.add(DLogNIZK.proveSingle(G, a, new Transcript("SingleBaseDomain".getBytes())));
+            twoP.add(Point.mul2(a, G, b, H));
+            twoProofs.add(DLogNIZK.proveTwoBase(G, H, a, b, new Transcript("TwoBaseDomain".getBytes())));
+        }
+        FixedBaseTable.of(G);
+        FixedBaseTable.of(H);   // 建表不计入验证耗时
+
+        long startBatch = System.nanoTime();
+        boolean okSingle = DLogNIZK.verifySingleBatch(G, singleP, singleProofs, transcripts("SingleBaseDomain"));
+        long midBatch = System.nanoTime();
+        boolean okTwo = DLogNIZK.verifyTwoBaseBatch(G, H, twoP, twoProofs, transcripts("TwoBaseDomain"));
+        long endBatch = System.nanoTime();
+        if (!okSingle || !okTwo) {
+            System.out.println("Batch verification failed: single=" + okSingle + " two=" + okTwo);
+        }
+        System.out.printf("Single-base Batch Verify Time per proof: %.3f ms%n",
+                (midBatch - startBatch) / (double) ITERATIONS / 1_000_000.0);
+        System.out.printf("Two-base Batch Verify Time per proof: %.3f ms%n",
+                (endBatch - midBatch) / (double) ITERATIONS / 1_000_000.0);
+        System.out.println();
+
+        // 摊销 / 压缩 AND 组合证明：k 取非 2 的幂，覆盖压缩证明的补齐分支
+        final int k = 5;
+        System.out.println("=== Amortized DLog Proof Test (k = " + k + ") ===");
+        List<Point> bases = new ArrayList<>();
+        List<Scalar> secrets = new ArrayList<>();
+        List<Point> publics = new ArrayList<>();
+        for (int j = 0; j < k; j++) {
+            bases.add(Point.hashToPoint(("Demo.G" + j).getBytes()));
+            secrets.add(Scalar.random());
+            publics.add(bases.get(j).mul(secrets.get(j)));
+        }
+        List<Point> tampered = new ArrayList<>(publics);
+        tampered.set(k - 1, publics.get(k - 1).add(G));
+
+        AmortizedDLogNIZK.Proof amortized =
+                AmortizedDLogNIZK.prove(bases, secrets, new Transcript("AmortizedDomain".getBytes()));
+        boolean okAmortized = AmortizedDLogNIZK.verify(bases, publics, amortized,
+                new Transcript("AmortizedDomain".getBytes()));
+        boolean badAmortized = AmortizedDLogNIZK.verify(bases, tampered, amortized,
+                new Transcript("AmortizedDomain".getBytes()));
+        System.out.println("Amortized proof: valid=" + okAmortized + ", tampered statement=" + badAmortized);
+
+        AmortizedDLogNIZK.CompressedProof compressed =
+                AmortizedDLogNIZK.proveCompressed(bases, secrets, new Transcript("AmortizedDomain".getBytes()));
+        boolean okCompressed = AmortizedDLogNIZK.verifyCompressed(bases, publics, compressed,
+                new Transcript("AmortizedDomain".getBytes()));
+        boolean badCompressed = AmortizedDLogNIZK.verifyCompressed(bases, tampered, compressed,
+                new Transcript("AmortizedDomain".getBytes()));
+        AmortizedDLogNIZK.CompressedProof forged = new AmortizedDLogNIZK.CompressedProof(
+                compressed.A, compressed.L, compressed.R, compressed.z.add(Scalar.one()));
+        boolean badResponse = AmortizedDLogNIZK.verifyCompressed(bases, publics, forged,
+                new Transcript("AmortizedDomain".getBytes()));
+        System.out.println("Compressed proof (" + compressed.L.size() + " rounds): valid=" + okCompressed
+                + ", tampered statement=" + badCompressed + ", tampered response=" + badResponse);
+        if (!okAmortized || badAmortized || !okCompressed || badCompressed || badResponse) {
+            System.out.println("Amortized DLog proof test failed");
+        }
+    }
+
+    private static List<Transcript> transcripts(String domain) {
+        List<Transcript> out = new ArrayList<>(ITERATIONS);
+        for (int i = 0; i < ITERATIONS; i++) out.add(new Transcript(domain.getBytes()));
+        return out;
     }
 }
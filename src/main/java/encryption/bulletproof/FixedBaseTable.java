@@ -0,0 +1,84 @@
+package encryption.bulletproof;
+
+import org.aion.tetryon.G1;
+import org.aion.tetryon.G1Point;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 固定基点的预计算表：table[j][d-1] = d·2^{4j}·B（仿射坐标）。
+ * <p>
+ * k·B 按 4 位窗口拆成 64 个数字，每个非零数字做一次混合加法，无需任何倍点，
+ * 最后只归一化一次。建表 ≈ 960 次 Jacobian 加法 + 一次批量求逆，适合 g / h / Gᵢ
+ * 这类在整个进程内反复使用的基点。
+ */
+public final class FixedBaseTable {
+
+    private static final int WINDOW = 4;
+    private static final int DIGITS = (1 << WINDOW) - 1;
+    private static final int WINDOWS = (256 + WINDOW - 1) / WINDOW;
+
+    /** 共享表的数量上限，防止调用方传入大量一次性基点时无限增长 */
+    private static final int MAX_SHARED = 64;
+    private static final Map<Point, FixedBaseTable> SHARED = new ConcurrentHashMap<>();
+
+    public final Point base;
+    private final G1Point[][] table;
+
+    public FixedBaseTable(Point base) {
+        this.base = base;
+        this.table = new G1Point[WINDOWS][];
+        if (base.equals(Point.INF)) return;
+
+        G1.JacobianPoint[] flat = new G1.JacobianPoint[WINDOWS * DIGITS];
+        G1.JacobianPoint cur = G1.toJacobian(base.p);              // 2^{4j}·B
+        for (int j = 0; j < WINDOWS; j++) {
+            G1.JacobianPoint acc = cur;
+            for (int d = 0; d < DIGITS; d++) {
+                flat[j * DIGITS + d] = acc;
+                acc = G1.jacobianAdd(acc, cur);
+            }
+            cur = acc;                                             // 16·2^{4j}·B
+        }
+        G1Point[] affine = G1.batchToAffine(flat);
+        for (int j = 0; j < WINDOWS; j++) {
+            table[j] = new G1Point[DIGITS];
+            System.arraycopy(affine, j * DIGITS, table[j], 0, DIGITS);
+        }
+    }
+
+    /** 进程内共享的表：同一基点只建一次 */
+    public static FixedBaseTable of(Point base) {
+        FixedBaseTable t = SHARED.get(base);
+        if (t != null) return t;
+        t = new FixedBaseTable(base);
+        if (SHARED.size() < MAX_SHARED) {
+            FixedBaseTable prev = SHARED.putIfAbsent(base, t);
+            if (prev != null) t = prev;
+        }
+        return t;
+    }
+
+    public Point mul(Scalar k) {
+        G1Point r = mulJacobian(k.toBigInt()).toAffine();
+        return r.isZero() ? Point.INF : new Point(r);
+    }
+
+    /** k·B，保持 Jacobian 坐标，供调用方继续累加或与其他结果一起批量归一化 */
+    public G1.JacobianPoint mulJacobian(BigInteger k) {
+        return addMul(G1.JacobianPoint.INFINITY, k);
+    }
+
+    /** acc + k·B：多个表共用一个累加器，整条和式只需最后归一化一次 */
+    G1.JacobianPoint addMul(G1.JacobianPoint acc, BigInteger k) {
+        if (table[0] == null) return acc;
+        for (int j = 0; j < WINDOWS; j++) {
+            int d = 0;
+            for (int b = WINDOW - 1; b >= 0; b--) d = (d << 1) | (k.testBit(j * WINDOW + b) ? 1 : 0);
+            if (d != 0) acc = G1.jacobianAddMixed(acc, table[j][d - 1]);
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,77 @@
+package encryption.bulletproof;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Prover 多核切分的小工具：pool 为 null 或规模低于阈值时退化为串行。
+ */
+final class ForkJoinOps {
+
+    private ForkJoinOps() {}
+
+    /** 是否值得把规模为 n 的工作切开 */
+    static boolean worthSplitting(ForkJoinPool pool, int threshold, int n) {
+        return pool != null && pool.getParallelism() > 1 && n >= 2 * Math.max(1, threshold);
+    }
+
+    /** 并行执行若干独立任务，按提交顺序返回结果 */
+    static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks) {
+        List<T> out = new ArrayList<>(tasks.size());
+        if (pool == null) {
+            try {
+                for (Callable<T> t : tasks) out.add(t.call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return out;
+        }
+        for (Future<T> f : pool.invokeAll(tasks)) out.add(join(f));
+        return out;
+    }
+
+    /** 对 [from, to) 逐下标执行 body；各下标之间必须互不依赖 */
+    static void forRange(ForkJoinPool pool, int threshold, int from, int to, IntConsumer body) {
+        int n = to - from;
+        if (!worthSplitting(pool, threshold, n)) {
+            for (int i = from; i < to; i++) body.accept(i);
+            return;
+        }
+        int chunks = chunkCount(pool, threshold, n);
+        List<Callable<Void>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int lo = from + (int) ((long) n * c / chunks);
+            int hi = from + (int) ((long) n * (c + 1) / chunks);
+            tasks.add(() -> {
+                for (int i = lo; i < hi; i++) body.accept(i);
+                return null;
+            });
+        }
+        invokeAll(pool, tasks);
+    }
+
+    /** 切块数：不超过并行度，每块不少于 threshold */
+    static int chunkCount(ForkJoinPool pool, int threshold, int n) {
+        return Math.max(1, Math.min(pool.getParallelism(), n / Math.max(1, threshold)));
+    }
+
+    private static <T> T join(Future<T> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable c = e.getCause();
+            if (c instanceof RuntimeException) throw (RuntimeException) c;
+            throw new RuntimeException(c);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package encryption.bulletproof;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Inner-Product Proof 〈l,r〉=t  —— 对应 Bulletproofs 论文 §4.2
@@ -20,6 +24,15 @@ public final class InnerProductProof {
         this.L = L;  this.R = R;  this.a = a;  this.b = b; this.g2=g2; this.h2=h2;
     }
 
+    /* 序列化不含 g2 / h2，见 ProofCodec */
+    public byte[] toBytes() {
+        return ProofCodec.encode(this);
+    }
+
+    public static InnerProductProof fromBytes(ByteBuffer buf) {
+        return ProofCodec.decodeInnerProductProof(buf);
+    }
+
     /* ===================================================================
      *                            ——  Prover  ——
      * =================================================================== */
@@ -27,18 +40,52 @@ public final class InnerProductProof {
                                           List<Scalar> r,
                                           BulletproofGens gens,
                                           Transcript ts) {
+        int n = l.size();
+        if (Integer.bitCount(n) != 1)
+            throw new IllegalArgumentException("length must be power-of-2");
+        return proveDeferred(l, r, gens, Scalar.vectorOfOnes(n), ts, null, 0);
+    }
+
+    /**
+     * 权重阶段的轮数：之后 n ≤ N/8，再对全部 N 个生成器做 MSM 已不如物化 G′ / H′
+     * 后逐轮折叠（prove_1 在 bits = 32 / 64 上实测以 3 轮最快）。
+     */
+    private static final int DEFERRED_ROUNDS = 3;
+
+    /* ===================================================================
+     *  延迟折叠的核心 Prover
+     *
+     *  折叠后的生成器不再逐轮计算 G·x⁻¹ + G·x，而是记为原始 gens.G / gens.H
+     *  上的标量权重：第 k 轮长度为 n 时，原始下标 j 归属于折叠下标 j mod n，
+     *  每轮只需更新权重 gW[j]、hW[j]。Lᵢ、Rᵢ 直接写成原始生成器上的一次 MSM。
+     *
+     *  权重阶段每轮 MSM 都覆盖全部 N 个生成器，而存活的只有 n 个；前
+     *  DEFERRED_ROUNDS 轮之后按权重一次性物化 G′ / H′（n 个 N/n 项小 MSM），
+     *  其余轮次退回逐轮折叠，Lᵢ、Rᵢ 只对存活的一半做 MSM。
+     *
+     *  @param hWeights H 的初始权重（prove 为 1ⁿ，prove_1 为 y⁻ⁱ，即 h′ = h^{y⁻ⁱ}）
+     *  @param pool     非 null 时 Lᵢ/Rᵢ 两个 MSM 并发、且各自切块，向量折叠也按块并行
+     *  @param threshold 每块最少元素数
+     * =================================================================== */
+    private static InnerProductProof proveDeferred(List<Scalar> l,
+                                                   List<Scalar> r,
+                                                   BulletproofGens gens,
+                                                   List<Scalar> hWeights,
+                                                   Transcript ts,
+                                                   ForkJoinPool pool,
+                                                   int threshold) {
 
         /* ---------- 防御性拷贝，避免就地修改影响外部 ---------- */
         l = new ArrayList<>(l);
         r = new ArrayList<>(r);
 
-        int n = l.size();
-        if (Integer.bitCount(n) != 1)
-            throw new IllegalArgumentException("length must be power-of-2");
+        final int N = l.size();
+        int n = N;
 
-        /* ---------- 复制生成器向量 ---------- */
-        List<Point> G = new ArrayList<>(gens.G.subList(0, n));
-        List<Point> H = new ArrayList<>(gens.H.subList(0, n));
+        List<Point> G0 = gens.G.subList(0, N);
+        List<Point> H0 = gens.H.subList(0, N);
+        Scalar[] gW = Scalar.vectorOfOnes(N).toArray(new Scalar[0]);
+        Scalar[] hW = hWeights.toArray(new Scalar[0]);
 
         List<Point> Lvec = new ArrayList<>();
         List<Point> Rvec = new ArrayList<>();
@@ -46,49 +93,108 @@ public final class InnerProductProof {
         /* =========================================================
          *            递归压缩（共 log₂(n) 轮）
          * ========================================================= */
+        Point[] Gv = null, Hv = null;            // 物化后的 G′ / H′；null 表示仍处于权重阶段
         while (n > 1) {
             int n2 = n >>> 1;                       // n / 2
+            int mask = n - 1;
+            if (Gv == null && n <= N >>> DEFERRED_ROUNDS) {
+                Gv = materialize(G0, gW, n, pool, threshold);
+                Hv = materialize(H0, hW, n, pool, threshold);
+            }
 
             /* (1) 计算 c_L  和  c_R   —— 公式 (8) */
             Scalar cL = Scalar.innerProduct(l.subList(0, n2), r.subList(n2, n));
             Scalar cR = Scalar.innerProduct(l.subList(n2, n), r.subList(0, n2));
 
-            /* (2) 生成承诺 Lᵢ , Rᵢ —— 公式 (7) */
-            Point Li = Point.msm(G.subList(n2, n), l.subList(0, n2))
-                    .add(Point.msm(H.subList(0, n2), r.subList(n2, n)))
-                    .add(gens.u.mul(cL));
-
-            Point Ri = Point.msm(G.subList(0, n2), l.subList(n2, n))
-                    .add(Point.msm(H.subList(n2, n), r.subList(0, n2)))
-                    .add(gens.u.mul(cR));
+            /* (2) 生成承诺 Lᵢ , Rᵢ —— 公式 (7)；权重阶段展开到原始生成器上，物化后只用存活的 G′ / H′ */
+            final int m = Gv != null ? n : N;
+            Point[]  lPts = new Point[m + 1];
+            Scalar[] lSc  = new Scalar[m + 1];
+            Point[]  rPts = new Point[m + 1];
+            Scalar[] rSc  = new Scalar[m + 1];
+            final List<Scalar> lc = l, rc = r;
+            final Point[] Gc = Gv, Hc = Hv;
+            if (Gc != null) ForkJoinOps.forRange(pool, threshold, 0, n2, i -> {
+                lPts[i]      = Gc[i + n2]; lSc[i]      = lc.get(i);
+                lPts[n2 + i] = Hc[i];      lSc[n2 + i] = rc.get(i + n2);
+                rPts[i]      = Gc[i];      rSc[i]      = lc.get(i + n2);
+                rPts[n2 + i] = Hc[i + n2]; rSc[n2 + i] = rc.get(i);
+            });
+            else ForkJoinOps.forRange(pool, threshold, 0, N, j -> {
+                int i = j & mask;
+                if (i >= n2) {
+                    // G[i] 属于上半：L 用 l[i-n2]，R 的 H 部分用 r[i-n2]
+                    lPts[j] = G0.get(j); lSc[j] = lc.get(i - n2).mul(gW[j]);
+                    rPts[j] = H0.get(j); rSc[j] = rc.get(i - n2).mul(hW[j]);
+                } else {
+                    // G[i] 属于下半：R 用 l[i+n2]，L 的 H 部分用 r[i+n2]
+                    rPts[j] = G0.get(j); rSc[j] = lc.get(i + n2).mul(gW[j]);
+                    lPts[j] = H0.get(j); lSc[j] = rc.get(i + n2).mul(hW[j]);
+                }
+            });
+            lPts[m] = gens.u; lSc[m] = cL;
+            rPts[m] = gens.u; rSc[m] = cR;
+
+            List<Point> LR = ForkJoinOps.invokeAll(pool, Arrays.<Callable<Point>>asList(
+                    () -> Point.msm(Arrays.asList(lPts), Arrays.asList(lSc), pool, threshold),
+                    () -> Point.msm(Arrays.asList(rPts), Arrays.asList(rSc), pool, threshold)));
+            Point Li = LR.get(0);
+            Point Ri = LR.get(1);
 
             Lvec.add(Li);
             Rvec.add(Ri);
 
             /* (3) 将 Lᵢ, Rᵢ 写入 transcript → 得到挑战 xᵢ */
-            ts.appendPoint("L", Li.toBytes());
-            ts.appendPoint("R", Ri.toBytes());
+            ts.appendPoint("L", Li);
+            ts.appendPoint("R", Ri);
             Scalar x     = ts.challengeScalar("x");   // xᵢ
             Scalar xInv  = x.inv();                   // xᵢ⁻¹
 
-            /* (4) 线性合并向量与生成器 —— 公式 (9)(10) */
-            for (int i = 0; i < n2; i++) {
-                l.set(i, l.get(i)      .mul(x)   .add(l.get(i + n2).mul(xInv)));
-                r.set(i, r.get(i)      .mul(xInv).add(r.get(i + n2).mul(x)));
-                G.set(i, G.get(i)      .mul(xInv).add(G.get(i + n2).mul(x)));
-                H.set(i, H.get(i)      .mul(x)   .add(H.get(i + n2).mul(xInv)));
-            }
+            /* (4) 线性合并向量 —— 公式 (9)(10)；生成器只更新权重 */
+            ForkJoinOps.forRange(pool, threshold, 0, n2, i -> {
+                lc.set(i, lc.get(i)      .mul(x)   .add(lc.get(i + n2).mul(xInv)));
+                rc.set(i, rc.get(i)      .mul(xInv).add(rc.get(i + n2).mul(x)));
+            });
+            if (Gc != null) ForkJoinOps.forRange(pool, threshold, 0, n2, i -> {
+                Gc[i] = Point.mul2(xInv, Gc[i], x, Gc[i + n2]);
+                Hc[i] = Point.mul2(x, Hc[i], xInv, Hc[i + n2]);
+            });
+            else ForkJoinOps.forRange(pool, threshold, 0, N, j -> {
+                if ((j & mask) < n2) {
+                    gW[j] = gW[j].mul(xInv);
+                    hW[j] = hW[j].mul(x);
+                } else {
+                    gW[j] = gW[j].mul(x);
+                    hW[j] = hW[j].mul(xInv);
+                }
+            });
 
             /* (5) 折半向量长度，进入下一轮 */
             l = l.subList(0, n2);
             r = r.subList(0, n2);
-            G = G.subList(0, n2);
-            H = H.subList(0, n2);
             n = n2;
         }
 
-        /* ---------- 递归结束：l,r,G,H  均只剩 1 元素 ---------- */
-        return new InnerProductProof(Lvec, Rvec, l.get(0), r.get(0),G.get(0),H.get(0));
+        /* ---------- 递归结束：l,r 只剩 1 元素；g2 = G′₀, h2 = H′₀（未物化时即 Σ gW·G, Σ hW·H） ---------- */
+        if (Gv != null)
+            return new InnerProductProof(Lvec, Rvec, l.get(0), r.get(0), Gv[0], Hv[0]);
+        List<Point> gh = ForkJoinOps.invokeAll(pool, Arrays.<Callable<Point>>asList(
+                () -> Point.msm(G0, Arrays.asList(gW), pool, threshold),
+                () -> Point.msm(H0, Arrays.asList(hW), pool, threshold)));
+        return new InnerProductProof(Lvec, Rvec, l.get(0), r.get(0), gh.get(0), gh.get(1));
+    }
+
+    /** 按权重物化折叠后的生成器：P′ᵢ = Σ_{j ≡ i (mod n)} w[j]·P₀[j] */
+    private static Point[] materialize(List<Point> P0, Scalar[] w, int n, ForkJoinPool pool, int threshold) {
+        Point[] out = new Point[n];
+        int N = P0.size();
+        ForkJoinOps.forRange(pool, threshold, 0, n, i -> {
+            List<Point> pts = new ArrayList<>(N / n);
+            List<Scalar> sc = new ArrayList<>(N / n);
+            for (int j = i; j < N; j += n) { pts.add(P0.get(j)); sc.add(w[j]); }
+            out[i] = Point.msm(pts, sc);
+        });
+        return out;
     }
 
     /* ===================================================================
@@ -104,8 +210,8 @@ public final class InnerProductProof {
         Scalar[] xInv = new Scalar[rounds];
 
         for (int i = 0; i < rounds; i++) {
-            ts.appendPoint("L", L.get(i).toBytes());
-            ts.appendPoint("R", R.get(i).toBytes());
+            ts.appendPoint("L", L.get(i));
+            ts.appendPoint("R", R.get(i));
             x[i] = ts.challengeScalar("x");
             xInv[i] = x[i].inv();
         }
@@ -125,7 +231,10 @@ public final class InnerProductProof {
         List<Scalar> sInv = Scalar.inverseVector(s);      // sⱼ⁻¹
 
         /* (4) 右侧值：
-               R = Σ s_j · G_j + Σ s_j⁻¹ · H_j + u·a·b                */
+               R = Σ s_j · G_j + Σ s_j⁻¹ · H_j + u·a·b
+               解码得到的证明不带 g2/h2，此时由 s_j 重算                */
+        Point g2 = this.g2 != null ? this.g2 : Point.msm(gens.G.subList(0, n), s);
+        Point h2 = this.h2 != null ? this.h2 : Point.msm(gens.H.subList(0, n), sInv);
         Point RHS = g2.mul(a)
                 .add(h2.mul(b))
                 .add(gens.u.mul(a.mul(b)));
@@ -140,61 +249,30 @@ public final class InnerProductProof {
                                             Scalar y,            // <— 新增
                                             Transcript ts) {
 
-        l = new ArrayList<>(l);
-        r = new ArrayList<>(r);
-
         int n = l.size();
         if (Integer.bitCount(n) != 1)
             throw new IllegalArgumentException("length must be power-of-2");
 
-        /* ---------- 生成 h′ = h_i^{y^{-i}} ---------- */
-        List<Point> Hprime = new ArrayList<>(n);
-        List<Scalar> yInvPows = Scalar.inverseVector(Scalar.powersOf(y, n));
-        for (int i = 0; i < n; i++)
-            Hprime.add( gens.H.get(i).mul( yInvPows.get(i) ) );
-
-        /* ---------- 拷贝生成器向量 ---------- */
-        List<Point> G = new ArrayList<>(gens.G.subList(0, n));
-        List<Point> H = new ArrayList<>(Hprime);          // ← 用 h′ 替换原 H
-
-        List<Point> Lvec = new ArrayList<>();
-        List<Point> Rvec = new ArrayList<>();
-
-        while (n > 1) {
-            int n2 = n >>> 1;
-
-            Scalar cL = Scalar.innerProduct(l.subList(0, n2), r.subList(n2, n));
-            Scalar cR = Scalar.innerProduct(l.subList(n2, n), r.subList(0, n2));
-
-            Point Li = Point.msm(G.subList(n2, n), l.subList(0, n2))
-                    .add(Point.msm(H.subList(0, n2), r.subList(n2, n)))
-                    .add(gens.u.mul(cL));
-
-            Point Ri = Point.msm(G.subList(0, n2), l.subList(n2, n))
-                    .add(Point.msm(H.subList(n2, n), r.subList(0, n2)))
-                    .add(gens.u.mul(cR));
+        /* ---------- h′ = h_i^{y^{-i}} 不再物化，作为 H 的初始权重 ---------- */
+        List<Scalar> yInvPows = Scalar.powersOf(y.inv(), n);
+        return proveDeferred(l, r, gens, yInvPows, ts, null, 0);
+    }
 
-            Lvec.add(Li);
-            Rvec.add(Ri);
+    /** prove_1 的多核版本：每轮 Lᵢ/Rᵢ 的 MSM 与向量折叠在 pool 上切块执行 */
+    public static InnerProductProof prove_1(List<Scalar> l,
+                                            List<Scalar> r,
+                                            BulletproofGens gens,
+                                            Scalar y,
+                                            Transcript ts,
+                                            ForkJoinPool pool,
+                                            int threshold) {
 
-            ts.appendPoint("L", Li.toBytes());
-            ts.appendPoint("R", Ri.toBytes());
-            Scalar x = ts.challengeScalar("x");
-            Scalar xInv = x.inv();
+        int n = l.size();
+        if (Integer.bitCount(n) != 1)
+            throw new IllegalArgumentException("length must be power-of-2");
 
-            for (int i = 0; i < n2; i++) {
-                l.set(i, l.get(i).mul(x).add( l.get(i+n2).mul(xInv) ));
-                r.set(i, r.get(i).mul(xInv).add( r.get(i+n2).mul(x) ));
-                G.set(i, G.get(i).mul(xInv).add( G.get(i+n2).mul(x) ));
-                H.set(i, H.get(i).mul(x).add( H.get(i+n2).mul(xInv) ));
-            }
-            l = l.subList(0, n2);   r = r.subList(0, n2);
-            G = G.subList(0, n2);   H = H.subList(0, n2);
-            n = n2;
-        }
-        /* 返回时 G/H 只剩 1 元素 —— 记为 g2, h2 */
-        return new InnerProductProof(Lvec, Rvec, l.get(0), r.get(0),
-                G.get(0), H.get(0));
+        List<Scalar> yInvPows = Scalar.powersOf(y.inv(), n);
+        return proveDeferred(l, r, gens, yInvPows, ts, pool, threshold);
     }
 
     /* ===================================================================
@@ -213,8 +291,8 @@ public final class InnerProductProof {
         Scalar[] x = new Scalar[rounds];
         Scalar[] xInv = new Scalar[rounds];
         for (int i = 0; i < rounds; i++) {
-            ts.appendPoint("L", L.get(i).toBytes());
-            ts.appendPoint("R", R.get(i).toBytes());
+            ts.appendPoint("L", L.get(i));
+            ts.appendPoint("R", R.get(i));
             x[i] = ts.challengeScalar("x");
             xInv[i] = x[i].inv();
         }
@@ -231,11 +309,15 @@ public final class InnerProductProof {
         for (int i = rounds - 1; i >= 0; i--)
             s = Scalar.expandAndMerge(s, xInv[i], x[i]);    // reverse order
 
-        /* ---------- 生成 h′ 与 RHS ---------- */
-        List<Point> Hprime = new ArrayList<>(n);
-        List<Scalar> yInvPows = Scalar.inverseVector(Scalar.powersOf(y, n));
-        for (int i = 0; i < n; i++)
-            Hprime.add( gens.H.get(i).mul( yInvPows.get(i) ) );
+        /* ---------- g2 = Σ s_j·G_j,  h2 = Σ s_j⁻¹·y⁻ʲ·H_j（解码得到的证明不带 g2/h2） ---------- */
+        Point g2 = this.g2;
+        Point h2 = this.h2;
+        if (g2 == null || h2 == null) {
+            List<Scalar> sInv = Scalar.inverseVector(s);
+            List<Scalar> yInvPows = Scalar.powersOf(y.inv(), n);
+            g2 = Point.msm(gens.G.subList(0, n), s);
+            h2 = Point.msm(gens.H.subList(0, n), Scalar.hadamard(sInv, yInvPows));
+        }
 
         Point RHS = g2.mul(a)
                 .add(h2.mul(b))
@@ -8,6 +8,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /** Pedersen generators (g, h) + 单值与向量承诺；在原有代码上添加内置测试与简单基准。 */
 public class PedersenCommitment {
@@ -39,18 +40,44 @@ public class PedersenCommitment {
 
     /** C = g^v · h^r */
     public Point commit(Scalar v, Scalar r) {
-        return g.mul(v).add(h.mul(r));
+        return Point.mul2(v, g, r, h);
     }
 
-    /** C = Σ aᵢ·Gᵢ + Σ bᵢ·Hᵢ + r·h  */
+    /**
+     * C = Σ aᵢ·Gᵢ + Σ bᵢ·Hᵢ + r·h
+     * <p>G / H 属于已 {@link PreparedVectorCommitter#prepare} 的生成器时走查表路径。
+     */
     public Point commitVec(List<Point> G, List<Point> H,
                            List<Scalar> a, List<Scalar> b,
                            Scalar r) {
+        PreparedVectorCommitter prepared = prepared(G, H, a, b);
+        if (prepared != null) return prepared.commit(a, b, r, h);
         return Point.msm(G, a)
                 .add(Point.msm(H, b))
                 .add(h.mul(r));
     }
 
+    /** commitVec 的多核版本：G、H、h 三部分合成一次 MSM 后按块并行 */
+    public Point commitVec(List<Point> G, List<Point> H,
+                           List<Scalar> a, List<Scalar> b,
+                           Scalar r, ForkJoinPool pool, int threshold) {
+        if (G.size() != a.size() || H.size() != b.size())
+            throw new IllegalArgumentException("len mismatch");
+        PreparedVectorCommitter prepared = PreparedVectorCommitter.lookup(G, H);
+        if (prepared != null) return prepared.commit(a, b, r, h, pool, threshold);
+        List<Point> pts = new ArrayList<>(G.size() + H.size() + 1);
+        List<Scalar> sc = new ArrayList<>(a.size() + b.size() + 1);
+        pts.addAll(G); pts.addAll(H); pts.add(h);
+        sc.addAll(a);  sc.addAll(b);  sc.add(r);
+        return Point.msm(pts, sc, pool, threshold);
+    }
+
+    private static PreparedVectorCommitter prepared(List<Point> G, List<Point> H,
+                                                    List<Scalar> a, List<Scalar> b) {
+        if (G.size() != a.size() || H.size() != b.size()) return null;
+        return PreparedVectorCommitter.lookup(G, H);
+    }
+
     /* ======================= 内置测试 & 基准 ======================= */
     private static final int ITER = 50;      // 单值承诺与同态性测试迭代
     private static final int VEC_N = 32;     // 向量承诺维度
@@ -63,6 +90,7 @@ public class PedersenCommitment {
         testCommitHomomorphism(pc);
         testCommitVecCorrectness(pc);
         testCommitVecLengthMismatch(pc);
+        testPreparedCommitVec(pc);
         bench(pc);
         System.out.println("全部 PedersenCommitment 自测完成 ✅");
     }
@@ -142,6 +170,27 @@ public class PedersenCommitment {
         }
     }
 
+    /** 查表路径与通用 MSM 结果一致（含前缀 subList 与多核版本） */
+    private static void testPreparedCommitVec(PedersenCommitment pc) {
+        BulletproofGens gens = BulletproofGens.shared(VEC_N, 1);
+        PreparedVectorCommitter prepared = PreparedVectorCommitter.prepare(gens);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int n : new int[]{VEC_N, VEC_N / 4}) {
+            List<Point> G = gens.G.subList(0, n);
+            List<Point> H = gens.H.subList(0, n);
+            for (int t = 0; t < VEC_ITER; t++) {
+                List<Scalar> a = randScalars(n);
+                List<Scalar> b = randScalars(n);
+                Scalar r = Scalar.random();
+                Point manual = Point.msm(G, a).add(Point.msm(H, b)).add(pc.h.mul(r));
+                assertEq("prepared commitVec", manual, pc.commitVec(G, H, a, b, r));
+                assertEq("prepared commitVec (pool)", manual, pc.commitVec(G, H, a, b, r, pool, 4));
+                assertEq("prepared commit", manual, prepared.commit(a, b, r, pc.h));
+            }
+        }
+        System.out.println("[OK] 预计算生成器 commitVec 与通用 MSM 一致 (" + VEC_ITER + " 次 × 2 种维度)");
+    }
+
     /** 简单基准：commit 与 commitVec 平均耗时 */
     private static void bench(PedersenCommitment pc) {
         long totalCommit = 0L;
@@ -174,6 +223,21 @@ public class PedersenCommitment {
         }
         double avgCommitVecMs = totalCommitVec / (double) VEC_ITER / 1_000_000.0;
         System.out.printf("commitVec 平均耗时（%d 次, 维度=%d）: %.6f ms\n", VEC_ITER, VEC_N, avgCommitVecMs);
+
+        BulletproofGens gens = BulletproofGens.shared(VEC_N, 1);
+        PreparedVectorCommitter.prepare(gens);
+        long totalPrepared = 0L;
+        for (int t = 0; t < VEC_ITER; t++) {
+            List<Scalar> a = randScalars(VEC_N);
+            List<Scalar> b = randScalars(VEC_N);
+            Scalar r = Scalar.random();
+            long t0 = System.nanoTime();
+            pc.commitVec(gens.G, gens.H, a, b, r);
+            long t1 = System.nanoTime();
+            totalPrepared += (t1 - t0);
+        }
+        double avgPreparedMs = totalPrepared / (double) VEC_ITER / 1_000_000.0;
+        System.out.printf("commitVec（预计算生成器）平均耗时（%d 次, 维度=%d）: %.6f ms\n", VEC_ITER, VEC_N, avgPreparedMs);
     }
 
     /* ======================= 辅助函数 ======================= */
@@ -6,7 +6,10 @@ import org.aion.tetryon.Util;
 
 import java.math.BigInteger;
 import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * 适配 org.aion.tetryon.G1Point 的轻量包装，提供 Bulletproofs 需要的
@@ -17,6 +20,9 @@ public final class Point {
     public final G1Point p;
     public static final Point INF = new Point(G1Point.INF);
 
+    /** toBytes 的缓存编码（只读，勿修改） */
+    private volatile byte[] encoded;
+
     public Point(G1Point p){ this.p = p; }
 
     /* -------- 基本运算 -------- */
@@ -39,21 +45,98 @@ public final class Point {
             throw new RuntimeException(e);
         }
     }
+    /** a·P + b·Q：两个标量共用一条倍点链（Shamir's trick），约省一半倍点 */
+    public static Point mul2(Scalar a, Point P, Scalar b, Point Q) {
+        if (a.toBigInt().signum() == 0 || P.equals(INF)) return Q.mul(b);
+        if (b.toBigInt().signum() == 0 || Q.equals(INF)) return P.mul(a);
+        try {
+            return new Point(G1.mul2(P.p, a.toBigInt(), Q.p, b.toBigInt()));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public Point neg(){
         return new Point(G1.negate(p));
     }
 
-    /* -------- 多标量乘：朴素累加 -------- */
+    /* -------- 多标量乘：Pippenger 桶算法（Java 侧 Jacobian 累加，仅最后归一化一次） -------- */
     public static Point msm(List<Point> P, List<Scalar> k){
         if(P.size()!=k.size()) throw new IllegalArgumentException("len mismatch");
-        Point acc = INF;
-        for(int i=0;i<P.size();i++){
-            if(!k.get(i).toBigInt().equals(BigInteger.ZERO))
-                acc = acc.add( P.get(i).mul(k.get(i)) );
+        int n = P.size();
+        if (n == 0) return INF;
+        if (n == 1) return P.get(0).mul(k.get(0));
+
+        BigInteger[] ks = new BigInteger[n];
+        int maxBits = 0;
+        for (int i = 0; i < n; i++) {
+            ks[i] = k.get(i).toBigInt();
+            maxBits = Math.max(maxBits, ks[i].bitLength());
+        }
+        if (maxBits == 0) return INF;
+
+        int c = msmWindow(n);
+        int buckets = (1 << c) - 1;
+        G1.JacobianPoint acc = G1.JacobianPoint.INFINITY;
+        for (int w = (maxBits - 1) / c; w >= 0; w--) {
+            for (int d = 0; d < c; d++) acc = G1.jacobianDouble(acc);
+
+            G1.JacobianPoint[] bucket = new G1.JacobianPoint[buckets];
+            for (int i = 0; i < n; i++) {
+                int digit = window(ks[i], w * c, c);
+                if (digit == 0) continue;
+                G1.JacobianPoint b = bucket[digit - 1];
+                bucket[digit - 1] = G1.jacobianAddMixed(b == null ? G1.JacobianPoint.INFINITY : b, P.get(i).p);
+            }
+            /* Σ j·B_j 通过前缀和计算：running = B_top + … + B_j，逐项累加 */
+            G1.JacobianPoint running = G1.JacobianPoint.INFINITY;
+            G1.JacobianPoint sum = G1.JacobianPoint.INFINITY;
+            for (int j = buckets - 1; j >= 0; j--) {
+                if (bucket[j] != null) running = G1.jacobianAdd(running, bucket[j]);
+                sum = G1.jacobianAdd(sum, running);
+            }
+            acc = G1.jacobianAdd(acc, sum);
         }
+        return new Point(acc.toAffine());
+    }
+
+    /**
+     * 多核 MSM：按 pool 并行度把点集切块，各块独立做 Pippenger 后求和。
+     * pool 为 null 或规模小于 2·threshold 时等价于 {@link #msm(List, List)}。
+     */
+    public static Point msm(List<Point> P, List<Scalar> k, ForkJoinPool pool, int threshold){
+        if(P.size()!=k.size()) throw new IllegalArgumentException("len mismatch");
+        int n = P.size();
+        if (!ForkJoinOps.worthSplitting(pool, threshold, n)) return msm(P, k);
+
+        int chunks = ForkJoinOps.chunkCount(pool, threshold, n);
+        List<Callable<Point>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int lo = (int) ((long) n * c / chunks);
+            int hi = (int) ((long) n * (c + 1) / chunks);
+            tasks.add(() -> msm(P.subList(lo, hi), k.subList(lo, hi)));
+        }
+        Point acc = INF;
+        for (Point part : ForkJoinOps.invokeAll(pool, tasks)) acc = acc.add(part);
         return acc;
     }
 
+    /** 窗口宽度 c ≈ log₂(n) − 1，小规模时至少 2 位 */
+    private static int msmWindow(int n){
+        int lg = 31 - Integer.numberOfLeadingZeros(n);
+        return Math.max(2, Math.min(lg - 1, 12));
+    }
+
+    /** 取 k 的第 [from, from+c) 位 */
+    private static int window(BigInteger k, int from, int c){
+        int d = 0;
+        for (int b = c - 1; b >= 0; b--) {
+            d <<= 1;
+            if (k.testBit(from + b)) d |= 1;
+        }
+        return d;
+    }
+
     /* -------- Hash-to-curve（借用 G1.HashToG1） -------- */
     public static Point hashToPoint(byte[] msg){
         try {
@@ -68,7 +151,14 @@ public final class Point {
 
     /* -------- 序列化 -------- */
     public byte[] toBytes(){
-        return Util.serializeG1(p);
+        return encoding().clone();
+    }
+
+    /** 缓存的序列化结果，供 Transcript 等只读场景免分配复用 */
+    byte[] encoding(){
+        byte[] e = encoded;
+        if (e == null) encoded = e = Util.serializeG1(p);
+        return e;
     }
     public static Point fromBytes(byte[] data){
         return new Point(Util.deserializeG1(data));
@@ -0,0 +1,104 @@
+package encryption.bulletproof;
+
+import org.aion.tetryon.G1;
+import org.aion.tetryon.G1Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 为一组 {@link BulletproofGens} 的 Gᵢ / Hᵢ 预先建好 {@link FixedBaseTable}，
+ * 向量承诺 Σ aᵢ·Gᵢ + Σ bᵢ·Hᵢ + r·h 全部化为查表 + 混合加法，无倍点，最后只归一化一次。
+ * <p>
+ * 每个生成器一张 64×15 的仿射表（约 60 KB），64 位生成器共 128 张，约 8 MB，
+ * 因此需显式 {@link #prepare} 才生效。注册后 {@link PedersenCommitment#commitVec}
+ * 会识别这些生成器（包括其前缀 subList）并自动走查表路径。
+ * 生成器按点值匹配：BP.Gᵢ / BP.Hᵢ 与位宽无关，准备 64 位即覆盖 8 / 16 / 32 位。
+ */
+public final class PreparedVectorCommitter {
+
+    private static final Map<BulletproofGens, PreparedVectorCommitter> PREPARED = new ConcurrentHashMap<>();
+
+    public final BulletproofGens gens;
+    private final FixedBaseTable[] gTables;
+    private final FixedBaseTable[] hTables;
+
+    private PreparedVectorCommitter(BulletproofGens gens) {
+        this.gens = gens;
+        int n = gens.G.size();
+        this.gTables = new FixedBaseTable[n];
+        this.hTables = new FixedBaseTable[n];
+        for (int i = 0; i < n; i++) {
+            gTables[i] = new FixedBaseTable(gens.G.get(i));
+            hTables[i] = new FixedBaseTable(gens.H.get(i));
+        }
+    }
+
+    /** 为 gens 建表并注册（同一实例只建一次） */
+    public static PreparedVectorCommitter prepare(BulletproofGens gens) {
+        return PREPARED.computeIfAbsent(gens, PreparedVectorCommitter::new);
+    }
+
+    /** 找到覆盖 G / H 的已注册实例：G、H 须分别是某组生成器的前缀；找不到返回 null */
+    static PreparedVectorCommitter lookup(List<Point> G, List<Point> H) {
+        if (PREPARED.isEmpty() || G.size() != H.size()) return null;
+        for (PreparedVectorCommitter p : PREPARED.values()) {
+            if (p.covers(G, H)) return p;
+        }
+        return null;
+    }
+
+    private boolean covers(List<Point> G, List<Point> H) {
+        int n = G.size();
+        if (n > gens.G.size()) return false;
+        for (int i = 0; i < n; i++) {
+            if (!same(G.get(i), gens.G.get(i)) || !same(H.get(i), gens.H.get(i))) return false;
+        }
+        return true;
+    }
+
+    private static boolean same(Point a, Point b) {
+        return a == b || a.equals(b);
+    }
+
+    /** Σ aᵢ·Gᵢ + Σ bᵢ·Hᵢ + r·h，a / b 长度不超过已准备的生成器数 */
+    public Point commit(List<Scalar> a, List<Scalar> b, Scalar r, Point h) {
+        return commit(a, b, r, h, null, 0);
+    }
+
+    /** 多核版本：按下标切块，各块独立累加后求和 */
+    public Point commit(List<Scalar> a, List<Scalar> b, Scalar r, Point h,
+                        ForkJoinPool pool, int threshold) {
+        int n = a.size();
+        if (b.size() != n || n > gTables.length)
+            throw new IllegalArgumentException("len mismatch");
+
+        G1.JacobianPoint acc = FixedBaseTable.of(h).mulJacobian(r.toBigInt());
+        if (!ForkJoinOps.worthSplitting(pool, threshold, n)) {
+            acc = accumulate(acc, a, b, 0, n);
+        } else {
+            int chunks = ForkJoinOps.chunkCount(pool, threshold, n);
+            List<Callable<G1.JacobianPoint>> tasks = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                int lo = (int) ((long) n * c / chunks);
+                int hi = (int) ((long) n * (c + 1) / chunks);
+                tasks.add(() -> accumulate(G1.JacobianPoint.INFINITY, a, b, lo, hi));
+            }
+            for (G1.JacobianPoint part : ForkJoinOps.invokeAll(pool, tasks)) acc = G1.jacobianAdd(acc, part);
+        }
+        G1Point res = acc.toAffine();
+        return res.isZero() ? Point.INF : new Point(res);
+    }
+
+    private G1.JacobianPoint accumulate(G1.JacobianPoint acc, List<Scalar> a, List<Scalar> b, int lo, int hi) {
+        for (int i = lo; i < hi; i++) {
+            acc = gTables[i].addMul(acc, a.get(i).toBigInt());
+            acc = hTables[i].addMul(acc, b.get(i).toBigInt());
+        }
+        return acc;
+    }
+}
@@ -0,0 +1,351 @@
+package encryption.bulletproof;
+
+import org.aion.tetryon.Fp;
+import org.aion.tetryon.G1;
+import org.aion.tetryon.G1Point;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * RangeProof / RangeProofPlus / AggregatedRangeProof / InnerProductProof / DLogNIZK 证明的定长二进制编码。
+ * <p>
+ * 布局（大端）：
+ * <pre>
+ *   header   : version:1B | type:1B | rounds:1B
+ *   Range    : A | S | T1 | T2 | taux | mu | tHat | IPP-body   （聚合证明同此布局，rounds = log₂(bits·m)）
+ *   IPP-body : L₀…L_{k-1} | R₀…R_{k-1} | a | b              (k = rounds)
+ *   Single   : R | s
+ *   TwoBase  : R | s1 | s2
+ *   Range+   : A | A′ | B | r′ | s′ | δ′ | L₀…L_{k-1} | R₀…R_{k-1}
+ * </pre>
+ * 点为 x ‖ y 各 32 字节（同 {@link org.aion.tetryon.Util#serializeG1}），标量 32 字节。
+ * IPP 的 g2 / h2 不上线：它们可由 verifier 从挑战重算，解码得到的证明中为 null。
+ * <p>
+ * 编码先按 rounds 算出总长度再一次性写入；解码直接在调用方的 ByteBuffer 上读取，
+ * Lᵢ / Rᵢ 以只读切片保存，首次访问时才解码并校验是否在曲线上。
+ */
+public final class ProofCodec {
+
+    public static final byte VERSION = 1;
+
+    public static final byte TYPE_RANGE = 1;
+    public static final byte TYPE_IPP = 2;
+    public static final byte TYPE_DLOG_SINGLE = 3;
+    public static final byte TYPE_DLOG_TWO = 4;
+    public static final byte TYPE_RANGE_PLUS = 5;
+    public static final byte TYPE_RANGE_AGG = 6;
+
+    static final int HEADER_LEN = 3;
+    static final int POINT_LEN = 64;
+    static final int SCALAR_LEN = 32;
+
+    /** rounds 上限：2⁶⁴ 位宽已远超实际需要 */
+    private static final int MAX_ROUNDS = 32;
+
+    private ProofCodec() {}
+
+    /* -------------------------- 长度 -------------------------- */
+
+    public static int rangeProofSize(int rounds) {
+        return HEADER_LEN + 4 * POINT_LEN + 3 * SCALAR_LEN + ippBodySize(rounds);
+    }
+
+    public static int rangeProofPlusSize(int rounds) {
+        return HEADER_LEN + 3 * POINT_LEN + 3 * SCALAR_LEN + 2 * rounds * POINT_LEN;
+    }
+
+    public static int innerProductProofSize(int rounds) {
+        return HEADER_LEN + ippBodySize(rounds);
+    }
+
+    public static int singleBaseProofSize() {
+        return HEADER_LEN + POINT_LEN + SCALAR_LEN;
+    }
+
+    public static int twoBaseProofSize() {
+        return HEADER_LEN + POINT_LEN + 2 * SCALAR_LEN;
+    }
+
+    private static int ippBodySize(int rounds) {
+        return 2 * rounds * POINT_LEN + 2 * SCALAR_LEN;
+    }
+
+    /* -------------------------- 编码 -------------------------- */
+
+    public static byte[] encode(RangeProof proof) {
+        ByteBuffer buf = ByteBuffer.allocate(rangeProofSize(proof.ipp.L.size()));
+        encode(proof, buf);
+        return buf.array();
+    }
+
+    /** 写入调用方提供的缓冲区（可为 direct buffer，直接交给 SocketChannel） */
+    public static void encode(RangeProof proof, ByteBuffer out) {
+        putHeader(out, TYPE_RANGE, proof.ipp.L.size());
+        putPoint(out, proof.A);
+        putPoint(out, proof.S);
+        putPoint(out, proof.T1);
+        putPoint(out, proof.T2);
+        putScalar(out, proof.taux);
+        putScalar(out, proof.mu);
+        putScalar(out, proof.tHat);
+        putIppBody(out, proof.ipp);
+    }
+
+    public static byte[] encode(AggregatedRangeProof proof) {
+        ByteBuffer buf = ByteBuffer.allocate(rangeProofSize(proof.ipp.L.size()));
+        putHeader(buf, TYPE_RANGE_AGG, proof.ipp.L.size());
+        putPoint(buf, proof.A);
+        putPoint(buf, proof.S);
+        putPoint(buf, proof.T1);
+        putPoint(buf, proof.T2);
+        putScalar(buf, proof.taux);
+        putScalar(buf, proof.mu);
+        putScalar(buf, proof.tHat);
+        putIppBody(buf, proof.ipp);
+        return buf.array();
+    }
+
+    public static byte[] encode(RangeProofPlus proof) {
+        ByteBuffer buf = ByteBuffer.allocate(rangeProofPlusSize(proof.L.size()));
+        encode(proof, buf);
+        return buf.array();
+    }
+
+    public static void encode(RangeProofPlus proof, ByteBuffer out) {
+        if (proof.L.size() != proof.R.size())
+            throw new IllegalArgumentException("L/R length mismatch");
+        putHeader(out, TYPE_RANGE_PLUS, proof.L.size());
+        putPoint(out, proof.A);
+        putPoint(out, proof.A1);
+        putPoint(out, proof.B);
+        putScalar(out, proof.r1);
+        putScalar(out, proof.s1);
+        putScalar(out, proof.d1);
+        for (Point p : proof.L) putPoint(out, p);
+        for (Point p : proof.R) putPoint(out, p);
+    }
+
+    public static byte[] encode(InnerProductProof proof) {
+        ByteBuffer buf = ByteBuffer.allocate(innerProductProofSize(proof.L.size()));
+        encode(proof, buf);
+        return buf.array();
+    }
+
+    public static void encode(InnerProductProof proof, ByteBuffer out) {
+        putHeader(out, TYPE_IPP, proof.L.size());
+        putIppBody(out, proof);
+    }
+
+    public static byte[] encode(DLogNIZK.SingleBaseProof proof) {
+        ByteBuffer buf = ByteBuffer.allocate(singleBaseProofSize());
+        putHeader(buf, TYPE_DLOG_SINGLE, 0);
+        putPoint(buf, proof.R);
+        putScalar(buf, proof.s);
+        return buf.array();
+    }
+
+    public static byte[] encode(DLogNIZK.TwoBaseProof proof) {
+        ByteBuffer buf = ByteBuffer.allocate(twoBaseProofSize());
+        putHeader(buf, TYPE_DLOG_TWO, 0);
+        putPoint(buf, proof.R);
+        putScalar(buf, proof.s1);
+        putScalar(buf, proof.s2);
+        return buf.array();
+    }
+
+    private static void putHeader(ByteBuffer out, byte type, int rounds) {
+        out.put(VERSION).put(type).put((byte) rounds);
+    }
+
+    private static void putIppBody(ByteBuffer out, InnerProductProof ipp) {
+        if (ipp.L.size() != ipp.R.size())
+            throw new IllegalArgumentException("L/R length mismatch");
+        for (Point p : ipp.L) putPoint(out, p);
+        for (Point p : ipp.R) putPoint(out, p);
+        putScalar(out, ipp.a);
+        putScalar(out, ipp.b);
+    }
+
+    private static void putPoint(ByteBuffer out, Point p) {
+        out.put(p.encoding());
+    }
+
+    /** 与 Scalar.toBytes 相同的 32 字节左补零编码，但不经过中间数组拼接 */
+    private static void putScalar(ByteBuffer out, Scalar s) {
+        byte[] v = s.toBigInt().toByteArray();
+        int len = Math.min(v.length, SCALAR_LEN);
+        for (int i = len; i < SCALAR_LEN; i++) out.put((byte) 0);
+        out.put(v, v.length - len, len);
+    }
+
+    /* -------------------------- 解码 -------------------------- */
+
+    /**
+     * 从 in 的当前位置解码一个 RangeProof，并把 position 前移到证明末尾。
+     * 返回的证明持有 in 的只读切片，调用方在验证完成前不应复用该缓冲区。
+     *
+     * @throws IllegalArgumentException 版本 / 类型 / 长度不符，或点、标量不合法
+     */
+    public static RangeProof decodeRangeProof(ByteBuffer in) {
+        int rounds = readHeader(in, TYPE_RANGE);
+        need(in, rangeProofSize(rounds) - HEADER_LEN);
+        Point A  = readPoint(in);
+        Point S  = readPoint(in);
+        Point T1 = readPoint(in);
+        Point T2 = readPoint(in);
+        Scalar taux = readScalar(in);
+        Scalar mu   = readScalar(in);
+        Scalar tHat = readScalar(in);
+        InnerProductProof ipp = readIppBody(in, rounds);
+        return new RangeProof(A, S, T1, T2, taux, mu, tHat, ipp);
+    }
+
+    public static AggregatedRangeProof decodeAggregatedRangeProof(ByteBuffer in) {
+        int rounds = readHeader(in, TYPE_RANGE_AGG);
+        need(in, rangeProofSize(rounds) - HEADER_LEN);
+        Point A  = readPoint(in);
+        Point S  = readPoint(in);
+        Point T1 = readPoint(in);
+        Point T2 = readPoint(in);
+        Scalar taux = readScalar(in);
+        Scalar mu   = readScalar(in);
+        Scalar tHat = readScalar(in);
+        InnerProductProof ipp = readIppBody(in, rounds);
+        return new AggregatedRangeProof(A, S, T1, T2, taux, mu, tHat, ipp);
+    }
+
+    public static RangeProofPlus decodeRangeProofPlus(ByteBuffer in) {
+        int rounds = readHeader(in, TYPE_RANGE_PLUS);
+        need(in, rangeProofPlusSize(rounds) - HEADER_LEN);
+        Point A  = readPoint(in);
+        Point A1 = readPoint(in);
+        Point B  = readPoint(in);
+        Scalar r1 = readScalar(in);
+        Scalar s1 = readScalar(in);
+        Scalar d1 = readScalar(in);
+        List<Point> L = new LazyPoints(slice(in, rounds * POINT_LEN), rounds);
+        List<Point> R = new LazyPoints(slice(in, rounds * POINT_LEN), rounds);
+        return new RangeProofPlus(A, A1, B, r1, s1, d1, L, R);
+    }
+
+    public static InnerProductProof decodeInnerProductProof(ByteBuffer in) {
+        int rounds = readHeader(in, TYPE_IPP);
+        need(in, ippBodySize(rounds));
+        return readIppBody(in, rounds);
+    }
+
+    public static DLogNIZK.SingleBaseProof decodeSingleBaseProof(ByteBuffer in) {
+        readHeader(in, TYPE_DLOG_SINGLE);
+        need(in, singleBaseProofSize() - HEADER_LEN);
+        Point R = readPoint(in);
+        return new DLogNIZK.SingleBaseProof(R, readScalar(in));
+    }
+
+    public static DLogNIZK.TwoBaseProof decodeTwoBaseProof(ByteBuffer in) {
+        readHeader(in, TYPE_DLOG_TWO);
+        need(in, twoBaseProofSize() - HEADER_LEN);
+        Point R = readPoint(in);
+        Scalar s1 = readScalar(in);
+        return new DLogNIZK.TwoBaseProof(R, s1, readScalar(in));
+    }
+
+    /**
+     * 读取 in 当前位置处 RangeProof 的位宽 2^rounds，不移动 position；
+     * hub 据此选择对应的 {@link RangeProofProfile}。
+     */
+    public static int peekRangeWidth(ByteBuffer in) {
+        int rounds = readHeader(in.duplicate(), TYPE_RANGE);
+        if (rounds > 30)
+            throw new IllegalArgumentException("range width too large: 2^" + rounds);
+        return 1 << rounds;
+    }
+
+    private static int readHeader(ByteBuffer in, byte type) {
+        need(in, HEADER_LEN);
+        byte version = in.get();
+        if (version != VERSION)
+            throw new IllegalArgumentException("unsupported proof encoding version " + version);
+        byte t = in.get();
+        if (t != type)
+            throw new IllegalArgumentException("unexpected proof type " + t + ", want " + type);
+        int rounds = in.get() & 0xff;
+        if (rounds > MAX_ROUNDS)
+            throw new IllegalArgumentException("too many rounds: " + rounds);
+        return rounds;
+    }
+
+    private static InnerProductProof readIppBody(ByteBuffer in, int rounds) {
+        List<Point> L = new LazyPoints(slice(in, rounds * POINT_LEN), rounds);
+        List<Point> R = new LazyPoints(slice(in, rounds * POINT_LEN), rounds);
+        Scalar a = readScalar(in);
+        Scalar b = readScalar(in);
+        return new InnerProductProof(L, R, a, b, null, null);
+    }
+
+    /** 截取 [position, position+len) 的只读视图并前移 in.position，不复制数据 */
+    private static ByteBuffer slice(ByteBuffer in, int len) {
+        ByteBuffer s = in.slice().asReadOnlyBuffer();
+        s.limit(len);
+        in.position(in.position() + len);
+        return s;
+    }
+
+    private static void need(ByteBuffer in, int len) {
+        if (in.remaining() < len)
+            throw new IllegalArgumentException("truncated proof: need " + len + " bytes, have " + in.remaining());
+    }
+
+    private static Point readPoint(ByteBuffer in) {
+        BigInteger x = readUnsigned(in);
+        BigInteger y = readUnsigned(in);
+        G1Point p = new G1Point(new Fp(x), new Fp(y));
+        if (!G1.isOnCurve(p))
+            throw new IllegalArgumentException("point not on curve");
+        return p.isZero() ? Point.INF : new Point(p);
+    }
+
+    private static Scalar readScalar(ByteBuffer in) {
+        BigInteger v = readUnsigned(in);
+        Scalar s = new Scalar(v);
+        if (!s.toBigInt().equals(v))
+            throw new IllegalArgumentException("non-canonical scalar");
+        return s;
+    }
+
+    private static BigInteger readUnsigned(ByteBuffer in) {
+        byte[] b = new byte[SCALAR_LEN];
+        in.get(b);
+        return new BigInteger(1, b);
+    }
+
+    /** Lᵢ / Rᵢ 的惰性视图：按需解码、校验并缓存 */
+    private static final class LazyPoints extends AbstractList<Point> implements RandomAccess {
+        private final ByteBuffer src;
+        private final Point[] cache;
+
+        LazyPoints(ByteBuffer src, int size) {
+            this.src = src;
+            this.cache = new Point[size];
+        }
+
+        @Override
+        public Point get(int i) {
+            Point p = cache[i];
+            if (p == null) {
+                ByteBuffer b = src.duplicate();
+                b.position(i * POINT_LEN);
+                cache[i] = p = readPoint(b);
+            }
+            return p;
+        }
+
+        @Override
+        public int size() {
+            return cache.length;
+        }
+    }
+}
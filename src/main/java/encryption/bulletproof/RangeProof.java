@@ -1,10 +1,15 @@
 package encryption.bulletproof;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import org.aion.tetryon.G1;
+import org.aion.tetryon.G1Point;
+
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Bulletproofs 单值范围证明 (v ∈ [0, 2^bits))
@@ -40,26 +45,71 @@ public final class RangeProof {
         return term1.sub(term2);                         // δ = term1 - term2
     }
 
+    /** 多核 prover 默认的切块阈值（每块最少的 MSM 项数 / 向量元素数） */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 16;
+
     /* -------------------------- Prover -------------------------- */
     public static RangeProof prove(long v, Scalar blind, int bits,
                                    PedersenCommitment pc, BulletproofGens gens,
                                    Transcript ts) {
+        return prove(v, blind, bits, pc, gens, ts, null, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public static RangeProof prove(long v, Scalar blind, int bits,
+                                   PedersenCommitment pc, BulletproofGens gens,
+                                   Transcript ts, ForkJoinPool pool) {
+        return prove(v, blind, bits, pc, gens, ts, pool, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * 多核 prover：A/S、T1/T2 两两并发，MSM 与 IPP 每轮的向量折叠在 pool 上切块；
+     * transcript 仍按原顺序串行写入，证明与单线程版本完全兼容。
+     *
+     * @param pool      为 null 时退化为单线程
+     * @param threshold 每块最少元素数，低于 2·threshold 的工作不切分
+     */
+    public static RangeProof prove(long v, Scalar blind, int bits,
+                                   PedersenCommitment pc, BulletproofGens gens,
+                                   Transcript ts, ForkJoinPool pool, int threshold) {
+        return prove(v, blind, twoPowers(bits), pc, gens, ts, pool, threshold);
+    }
+
+    /** @param twoPows 2⁰…2ⁿ⁻¹ 表（RangeProofProfile 按位宽缓存），n 即位宽 */
+    static RangeProof prove(long v, Scalar blind, List<Scalar> twoPows,
+                            PedersenCommitment pc, BulletproofGens gens,
+                            Transcript ts, ForkJoinPool pool, int threshold) {
+        Blinding pre = Blinding.create(twoPows.size(), pc, gens, pool, threshold);
+        return prove(v, blind, twoPows, pc, gens, ts, pre, pool, threshold);
+    }
+
+    /**
+     * 在线阶段：与取值无关的部分（sL、sR、S、α·h、τ₁·h、τ₂·h）由 pre 提供，
+     * 这里只做依赖 v 的 A、t₁/t₂、T1/T2 与 IPP。pre 只能使用一次。
+     */
+    static RangeProof prove(long v, Scalar blind, List<Scalar> twoPows,
+                            PedersenCommitment pc, BulletproofGens gens,
+                            Transcript ts, Blinding pre,
+                            ForkJoinPool pool, int threshold) {
+
+        int n = twoPows.size();
+        if (pre.n != n || pre.gens != gens || !pre.h.equals(pc.h))
+            throw new IllegalArgumentException("precomputed blinding does not match width / generators");
 
-        int n = bits;
         List<Integer> bitsV = Scalar.toBits(v, n);
         List<Scalar> aL = Scalar.fromBits(bitsV);
         List<Scalar>  ones  = Scalar.fill(n, Scalar.one());
         List<Scalar>  aR    = Scalar.vectorSub(aL, ones);   // aR = aL - 1ⁿ
 
-        List<Scalar> sL = Scalar.randomVector(n);
-        List<Scalar> sR = Scalar.randomVector(n);
-        Scalar alpha  = Scalar.random();
-        Scalar rho    = Scalar.random();
+        List<Scalar> sL = pre.sL;
+        List<Scalar> sR = pre.sR;
+        Scalar alpha  = pre.alpha;
+        Scalar rho    = pre.rho;
 
-        Point A = pc.commitVec(gens.G, gens.H, aL, aR, alpha);
-        Point S = pc.commitVec(gens.G, gens.H, sL, sR, rho);
-        ts.appendPoint("A", A.toBytes());
-        ts.appendPoint("S", S.toBytes());
+        /* aLᵢ ∈ {0,1}、aRᵢ = aLᵢ - 1：A = α·h + Σ_{vᵢ=1} Gᵢ - Σ_{vᵢ=0} Hᵢ，只需加法 */
+        Point A = bitCommit(gens.G.subList(0, n), gens.H.subList(0, n), v, pre.alphaH);
+        Point S = pre.S;
+        ts.appendPoint("A", A);
+        ts.appendPoint("S", S);
 
         Scalar y = ts.challengeScalar("y");
         Scalar z = ts.challengeScalar("z");
@@ -71,7 +121,7 @@ public final class RangeProof {
         List<Scalar> yPows = Scalar.powersOf(y, n);
         List<Scalar> z2TwoPow = new ArrayList<>(n);
         for (int i = 0; i < n; i++)
-            z2TwoPow.add( new Scalar(BigInteger.ONE.shiftLeft(i)).mul(zSq) );
+            z2TwoPow.add( twoPows.get(i).mul(zSq) );
         List<Scalar> r0_base = Scalar.vectorAdd(aR, Scalar.fill(n, z));
         r0_base = Scalar.hadamard(r0_base, yPows);
 
@@ -83,13 +133,16 @@ public final class RangeProof {
                 .add(Scalar.innerProduct(l1, r0));
         Scalar t2 = Scalar.innerProduct(l1, r1);
 
-        Scalar tau1 = Scalar.random();
-        Scalar tau2 = Scalar.random();
+        Scalar tau1 = pre.tau1;
+        Scalar tau2 = pre.tau2;
 
-        Point T1 = pc.commit(t1, tau1);
-        Point T2 = pc.commit(t2, tau2);
-        ts.appendPoint("T1", T1.toBytes());
-        ts.appendPoint("T2", T2.toBytes());
+        List<Point> TT = ForkJoinOps.invokeAll(pool, Arrays.<Callable<Point>>asList(
+                () -> pc.g.mul(t1).add(pre.tau1H),
+                () -> pc.g.mul(t2).add(pre.tau2H)));
+        Point T1 = TT.get(0);
+        Point T2 = TT.get(1);
+        ts.appendPoint("T1", T1);
+        ts.appendPoint("T2", T2);
 
         Scalar x = ts.challengeScalar("x");
 
@@ -102,32 +155,96 @@ public final class RangeProof {
 
         Scalar tHat = Scalar.innerProduct(l, r);
 
-        InnerProductProof ipp = InnerProductProof.prove_1(l, r, gens, y,ts);
+        InnerProductProof ipp = InnerProductProof.prove_1(l, r, gens, y, ts, pool, threshold);
         return new RangeProof(A, S, T1, T2, taux, mu, tHat, ipp);
     }
 
+    /** blind + Σ_{vᵢ=1} Gᵢ - Σ_{vᵢ=0} Hᵢ，在 Jacobian 坐标下累加，最后归一化一次 */
+    static Point bitCommit(List<Point> G, List<Point> H, long v, Point blind) {
+        G1.JacobianPoint acc = G1.toJacobian(blind.p);
+        for (int i = 0; i < G.size(); i++) {
+            G1Point q = ((v >>> i) & 1L) == 1 ? G.get(i).p : G1.negate(H.get(i).p);
+            acc = G1.jacobianAddMixed(acc, q);
+        }
+        G1Point a = acc.toAffine();
+        return a.isZero() ? Point.INF : new Point(a);
+    }
+
+    /**
+     * Prover 中与证明值无关的一次性随机量及其承诺，可离线预先生成
+     * （见 {@link RangeProofPrecomputer}）。同一实例绝不能用于两次证明，
+     * 否则 sL/sR 与 τ₁/τ₂ 可被解出，泄露 v。
+     */
+    static final class Blinding {
+        final int n;
+        final BulletproofGens gens;
+        final Point h;
+        final List<Scalar> sL, sR;
+        final Scalar alpha, rho, tau1, tau2;
+        final Point alphaH, S, tau1H, tau2H;
+
+        private Blinding(int n, BulletproofGens gens, Point h,
+                         List<Scalar> sL, List<Scalar> sR,
+                         Scalar alpha, Scalar rho, Scalar tau1, Scalar tau2,
+                         Point alphaH, Point S, Point tau1H, Point tau2H) {
+            this.n = n; this.gens = gens; this.h = h;
+            this.sL = sL; this.sR = sR;
+            this.alpha = alpha; this.rho = rho; this.tau1 = tau1; this.tau2 = tau2;
+            this.alphaH = alphaH; this.S = S; this.tau1H = tau1H; this.tau2H = tau2H;
+        }
+
+        static Blinding create(int n, PedersenCommitment pc, BulletproofGens gens,
+                               ForkJoinPool pool, int threshold) {
+            List<Scalar> sL = Scalar.randomVector(n);
+            List<Scalar> sR = Scalar.randomVector(n);
+            Scalar alpha = Scalar.random();
+            Scalar rho   = Scalar.random();
+            Scalar tau1  = Scalar.random();
+            Scalar tau2  = Scalar.random();
+
+            List<Point> pts = ForkJoinOps.invokeAll(pool, Arrays.<Callable<Point>>asList(
+                    () -> pc.commitVec(gens.G.subList(0, n), gens.H.subList(0, n), sL, sR, rho, pool, threshold),
+                    () -> pc.h.mul(alpha),
+                    () -> pc.h.mul(tau1),
+                    () -> pc.h.mul(tau2)));
+            return new Blinding(n, gens, pc.h, sL, sR, alpha, rho, tau1, tau2,
+                    pts.get(1), pts.get(0), pts.get(2), pts.get(3));
+        }
+    }
+
     /* ------------------------ Verifier ------------------------ */
     public boolean verify(Point commitment,
                           int bits,
                           PedersenCommitment pc,
                           BulletproofGens gens,
                           Transcript ts) {
-
-        final int n = bits;
-        if (Integer.bitCount(n) != 1)
+        if (Integer.bitCount(bits) != 1)
             throw new IllegalArgumentException("bits must be power-of-2");
+        return verify(commitment, twoPowers(bits), pc, gens, ts);
+    }
+
+    /** @param twoPows 2⁰…2ⁿ⁻¹ 表，n 即位宽 */
+    boolean verify(Point commitment,
+                   List<Scalar> twoPows,
+                   PedersenCommitment pc,
+                   BulletproofGens gens,
+                   Transcript ts) {
+
+        final int n = twoPows.size();
+        if (ipp.L.size() != Integer.numberOfTrailingZeros(n) || ipp.R.size() != ipp.L.size())
+            return false;
 
         /* --- 1. 重放挑战 --- */
-        ts.appendPoint("A", A.toBytes());
-        ts.appendPoint("S", S.toBytes());
+        ts.appendPoint("A", A);
+        ts.appendPoint("S", S);
         Scalar y = ts.challengeScalar("y");
         Scalar z = ts.challengeScalar("z");
 
-        ts.appendPoint("T1", T1.toBytes());
-        ts.appendPoint("T2", T2.toBytes());
+        ts.appendPoint("T1", T1);
+        ts.appendPoint("T2", T2);
         Scalar x = ts.challengeScalar("x");
 
-        Scalar delta = delta(y, z, bits);
+        Scalar delta = delta(y, z, n);
 
         /* --- 2. 检查 tHat·g + taux·h = z²·C + x·T1 + x²·T2 --- */
         Point lhs = pc.g.mul(tHat).add(pc.h.mul(taux));
@@ -137,48 +254,31 @@ public final class RangeProof {
                 .add(pc.g.mul(delta));
         if (!lhs.equals(rhs)) return false;
 
-
-
-
-        List<Scalar> yPows = Scalar.powersOf(y, n);
-
-        // y 的负幂  y⁻⁰ … y⁻(n-1)
-        List<Scalar> yInvPows = Scalar.inverseVector(yPows);
-
-        // H′ᵢ =  y⁻ⁱ · Hᵢ
-        List<Point> Hprime = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) {
-            Hprime.add( gens.H.get(i).mul( yInvPows.get(i)  ) );
-        }
-
-
-        List<Scalar> zfill = Scalar.fill(n, z.neg());                 // g^{-z}
-        List<Scalar> rHat = new ArrayList<>(n);                      // (h′)^{z+z²2ᶦ}
+        /* --- 3. (h′)^{z·yⁱ + z²·2ⁱ}，h′ᵢ = y⁻ⁱ·Hᵢ 不物化：
+         *        标量直接并入原始 Hᵢ，即 z + z²·2ⁱ·y⁻ⁱ --- */
+        List<Scalar> yInvPows = Scalar.powersOf(y.inv(), n);
         Scalar zSq = z.square();
+        List<Scalar> zfill = Scalar.fill(n, z.neg());                 // g^{-z}
+        List<Scalar> hExp = new ArrayList<>(n);
         for (int i = 0; i < n; i++)
-            rHat.add( yPows.get(i).mul( z.add( zSq.mul( new Scalar(BigInteger.ONE.shiftLeft(i)) ) ) ) );
-
-        List<Scalar> twoPows = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) {
-            twoPows.add( new Scalar(BigInteger.ONE.shiftLeft(i)) );
-        }
-
-        /* 组合得到  eᵢ = z·y^i + z²·2^i */
-        List<Scalar> out = new ArrayList<>(n);
-        for (int i = 0; i < n; i++) {
-            Scalar term = z.mul( yPows.get(i) )            // z·y^i
-                    .add( zSq.mul( twoPows.get(i) ) ); // + z²·2^i
-            out.add(term);
-        }
+            hExp.add( z.add( zSq.mul(twoPows.get(i)).mul(yInvPows.get(i)) ) );
 
         /* ---------- P′ 组合 ---------- */
         Point Pprime = A.add( S.mul(x) )
                 .add( Point.msm(gens.G.subList(0,n), zfill) )  // g^{-z}
-                .add( Point.msm(Hprime, out ))               // (h′)^{…}
+                .add( Point.msm(gens.H.subList(0,n), hExp ))   // (h′)^{…}
                 .add(gens.u.mul(tHat));
 
-        /* --- 6. 调用内积证明验证 ----------------------------- */
-        return ipp.verify_1(Pprime, gens, y, ts, pc.h.mul(mu));                  // g₂,h₂ 已存于 proof 内部
+        /* --- 4. 调用内积证明验证 ----------------------------- */
+        return ipp.verify_1(Pprime, gens, y, ts, pc.h.mul(mu));
+    }
+
+    /** 2⁰ … 2ⁿ⁻¹ */
+    static List<Scalar> twoPowers(int n) {
+        List<Scalar> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            out.add( new Scalar(BigInteger.ONE.shiftLeft(i)) );
+        return out;
     }
 
     public boolean debugVerify(long v, Scalar blind,
@@ -217,28 +317,17 @@ public final class RangeProof {
         return diff.equals(Point.INF) || diff.add(h).equals(h.add(diff));
     }
 
-    /* --- 简易序列化（若要网络传输自行扩充） --- */
+    /* --- 序列化：定长二进制，见 ProofCodec --- */
     public byte[] toBytes() {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        try {
-            out.write(A.toBytes());
-            out.write(S.toBytes());
-            out.write(T1.toBytes());
-            out.write(T2.toBytes());
-
-            out.write(taux.toBytes());
-            out.write(mu.toBytes());
-            out.write(tHat.toBytes());
-
-            // ── IPP ───────────────
-            for (Point Lpt : ipp.L) out.write(Lpt.toBytes());
-            for (Point Rpt : ipp.R) out.write(Rpt.toBytes());
-            out.write(ipp.a.toBytes());
-            out.write(ipp.b.toBytes());
-
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-        return out.toByteArray();
+        return ProofCodec.encode(this);
+    }
+
+    public static RangeProof fromBytes(byte[] data) {
+        return ProofCodec.decodeRangeProof(ByteBuffer.wrap(data));
+    }
+
+    /** 直接在网络缓冲区上解码，position 前移到证明末尾 */
+    public static RangeProof fromBytes(ByteBuffer buf) {
+        return ProofCodec.decodeRangeProof(buf);
     }
 }
\ No newline at end of file
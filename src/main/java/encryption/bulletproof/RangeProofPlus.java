@@ -0,0 +1,316 @@
+package encryption.bulletproof;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bulletproofs+ 单值范围证明 (v ∈ [0, 2^bits))，基于加权内积论证（WIP），
+ * 见 Chung–Han–Ju–Kim–Lee, "Bulletproofs+" §3–§4。
+ * <p>
+ * 与 {@link RangeProof} 共用 {@link PedersenCommitment}（g 为取值基点，h 为致盲基点）
+ * 与 {@link BulletproofGens}。相比原版：
+ * <ul>
+ *   <li>证明少 1 个点、2 个标量（64 位时 1059 字节 vs 1187 字节）；</li>
+ *   <li>验证整体合成一次 MSM，且可多证明随机加权后批量验证。</li>
+ * </ul>
+ * 加权内积 ⟨a, b⟩_y = Σᵢ aᵢ·bᵢ·y^{i+1}（下标从 0 开始）。
+ */
+public final class RangeProofPlus {
+
+    public final Point A;               // A  = G^{aL} H^{aR} h^α
+    public final Point A1, B;           // WIP 末轮 A′、B
+    public final Scalar r1, s1, d1;     // WIP 末轮 r′、s′、δ′
+    public final List<Point> L;         // 每轮 Lᵢ
+    public final List<Point> R;         // 每轮 Rᵢ
+
+    RangeProofPlus(Point A, Point A1, Point B,
+                   Scalar r1, Scalar s1, Scalar d1,
+                   List<Point> L, List<Point> R) {
+        this.A = A; this.A1 = A1; this.B = B;
+        this.r1 = r1; this.s1 = s1; this.d1 = d1;
+        this.L = L; this.R = R;
+    }
+
+    /* -------------------------- Prover -------------------------- */
+
+    public static RangeProofPlus prove(long v, Scalar blind, int bits,
+                                       PedersenCommitment pc, BulletproofGens gens,
+                                       Transcript ts) {
+        final int n = bits;
+        if (Integer.bitCount(n) != 1)
+            throw new IllegalArgumentException("bits must be power-of-2");
+        if (gens.G.size() < n)
+            throw new IllegalArgumentException("not enough generators for " + n + " bits");
+
+        Scalar vs = new Scalar(new BigInteger(Long.toUnsignedString(v)));
+        Point V = pc.commit(vs, blind);
+
+        /* 1. A = α·h + Σ_{vᵢ=1} Gᵢ - Σ_{vᵢ=0} Hᵢ */
+        Scalar alpha = Scalar.random();
+        Point A = RangeProof.bitCommit(gens.G.subList(0, n), gens.H.subList(0, n), v, pc.h.mul(alpha));
+
+        ts.appendPoint("V", V);
+        ts.appendPoint("A", A);
+        Scalar y = ts.challengeScalar("y");
+        Scalar z = ts.challengeScalar("z");
+        Scalar zSq = z.square();
+
+        /* 2. âL = aL - z·1，âR = aR + z·1 + d ∘ (yⁿ, …, y¹)，d = z²·2ⁱ；α̂ = α + γ·z²·y^{n+1} */
+        List<Scalar> yPows = Scalar.powersOf(y, n + 2);          // y⁰ … y^{n+1}
+        List<Scalar> twoPows = RangeProof.twoPowers(n);
+        Scalar[] a = new Scalar[n];
+        Scalar[] b = new Scalar[n];
+        for (int i = 0; i < n; i++) {
+            boolean bit = ((v >>> i) & 1L) == 1;
+            Scalar aL = bit ? Scalar.one() : Scalar.zero();
+            Scalar aR = bit ? Scalar.zero() : Scalar.one().neg();
+            a[i] = aL.sub(z);
+            b[i] = aR.add(z).add(zSq.mul(twoPows.get(i)).mul(yPows.get(n - i)));
+        }
+        Scalar alphaHat = alpha.add(blind.mul(zSq).mul(yPows.get(n + 1)));
+
+        return proveWip(a, b, alphaHat, y, yPows, A, pc, gens, ts);
+    }
+
+    /**
+     * 零知识加权内积论证：证明 Â = G^a H^b g^{⟨a,b⟩_y} h^α。
+     * 与 InnerProductProof 相同，折叠后的生成器只记为原始 Gᵢ / Hᵢ 上的权重，
+     * 每轮 L / R 与末轮 A′ 都是原始生成器上的一次 MSM。
+     */
+    private static RangeProofPlus proveWip(Scalar[] a, Scalar[] b, Scalar alpha,
+                                           Scalar y, List<Scalar> yPows, Point A,
+                                           PedersenCommitment pc, BulletproofGens gens,
+                                           Transcript ts) {
+        final int N = a.length;
+        int n = N;
+        List<Point> G0 = gens.G.subList(0, N);
+        List<Point> H0 = gens.H.subList(0, N);
+        Scalar[] gW = Scalar.vectorOfOnes(N).toArray(new Scalar[0]);
+        Scalar[] hW = Scalar.vectorOfOnes(N).toArray(new Scalar[0]);
+        Scalar yInv = y.inv();
+
+        List<Point> Lvec = new ArrayList<>();
+        List<Point> Rvec = new ArrayList<>();
+
+        while (n > 1) {
+            int n2 = n >>> 1;
+            int mask = n - 1;
+            Scalar yN2 = yPows.get(n2);
+            Scalar yN2Inv = yInv.pow(n2);
+
+            /* cL = ⟨a₁, b₂⟩_y,  cR = ⟨y^{n̂}·a₂, b₁⟩_y */
+            Scalar cL = Scalar.zero();
+            Scalar cR = Scalar.zero();
+            for (int i = 0; i < n2; i++) {
+                cL = cL.add(a[i].mul(b[n2 + i]).mul(yPows.get(i + 1)));
+                cR = cR.add(a[n2 + i].mul(b[i]).mul(yPows.get(i + 1)));
+            }
+            cR = cR.mul(yN2);
+            Scalar dL = Scalar.random();
+            Scalar dR = Scalar.random();
+
+            /* L = G₂^{y^{-n̂}·a₁} H₁^{b₂} g^{cL} h^{dL}，R = G₁^{y^{n̂}·a₂} H₂^{b₁} g^{cR} h^{dR} */
+            List<Point> lPts = new ArrayList<>(N + 2);
+            List<Scalar> lSc = new ArrayList<>(N + 2);
+            List<Point> rPts = new ArrayList<>(N + 2);
+            List<Scalar> rSc = new ArrayList<>(N + 2);
+            for (int j = 0; j < N; j++) {
+                int c = j & mask;
+                if (c >= n2) {
+                    lPts.add(G0.get(j)); lSc.add(a[c - n2].mul(yN2Inv).mul(gW[j]));
+                    rPts.add(H0.get(j)); rSc.add(b[c - n2].mul(hW[j]));
+                } else {
+                    rPts.add(G0.get(j)); rSc.add(a[c + n2].mul(yN2).mul(gW[j]));
+                    lPts.add(H0.get(j)); lSc.add(b[c + n2].mul(hW[j]));
+                }
+            }
+            lPts.add(pc.g); lSc.add(cL);
+            lPts.add(pc.h); lSc.add(dL);
+            rPts.add(pc.g); rSc.add(cR);
+            rPts.add(pc.h); rSc.add(dR);
+            Point Li = Point.msm(lPts, lSc);
+            Point Ri = Point.msm(rPts, rSc);
+            Lvec.add(Li);
+            Rvec.add(Ri);
+
+            ts.appendPoint("L", Li);
+            ts.appendPoint("R", Ri);
+            Scalar e = ts.challengeScalar("e");
+            Scalar eInv = e.inv();
+            Scalar eSq = e.square();
+            Scalar eInvSq = eInv.square();
+
+            /* â = e·a₁ + y^{n̂}·e⁻¹·a₂，b̂ = e⁻¹·b₁ + e·b₂，α̂ = e²·dL + α + e⁻²·dR */
+            for (int i = 0; i < n2; i++) {
+                a[i] = a[i].mul(e).add(a[n2 + i].mul(yN2).mul(eInv));
+                b[i] = b[i].mul(eInv).add(b[n2 + i].mul(e));
+            }
+            alpha = dL.mul(eSq).add(alpha).add(dR.mul(eInvSq));
+
+            /* Ĝ = G₁^{e⁻¹} ∘ G₂^{e·y^{-n̂}}，Ĥ = H₁^{e} ∘ H₂^{e⁻¹} */
+            Scalar eYN2Inv = e.mul(yN2Inv);
+            for (int j = 0; j < N; j++) {
+                if ((j & mask) < n2) {
+                    gW[j] = gW[j].mul(eInv);
+                    hW[j] = hW[j].mul(e);
+                } else {
+                    gW[j] = gW[j].mul(eYN2Inv);
+                    hW[j] = hW[j].mul(eInv);
+                }
+            }
+            n = n2;
+        }
+
+        /* 末轮：A′ = G^r H^s g^{y·(r·b + s·a)} h^δ，B = g^{y·r·s} h^η */
+        Scalar r = Scalar.random();
+        Scalar s = Scalar.random();
+        Scalar delta = Scalar.random();
+        Scalar eta = Scalar.random();
+        Scalar y1 = yPows.get(1);
+
+        List<Point> pts = new ArrayList<>(2 * N + 2);
+        List<Scalar> sc = new ArrayList<>(2 * N + 2);
+        for (int j = 0; j < N; j++) { pts.add(G0.get(j)); sc.add(r.mul(gW[j])); }
+        for (int j = 0; j < N; j++) { pts.add(H0.get(j)); sc.add(s.mul(hW[j])); }
+        pts.add(pc.g); sc.add(y1.mul(r.mul(b[0]).add(s.mul(a[0]))));
+        pts.add(pc.h); sc.add(delta);
+        Point A1 = Point.msm(pts, sc);
+        Point B = Point.msm(Arrays.asList(pc.g, pc.h), Arrays.asList(y1.mul(r).mul(s), eta));
+
+        ts.appendPoint("A1", A1);
+        ts.appendPoint("B", B);
+        Scalar e = ts.challengeScalar("e");
+
+        Scalar r1 = r.add(a[0].mul(e));
+        Scalar s1 = s.add(b[0].mul(e));
+        Scalar d1 = eta.add(delta.mul(e)).add(alpha.mul(e.square()));
+        return new RangeProofPlus(A, A1, B, r1, s1, d1, Lvec, Rvec);
+    }
+
+    /* ------------------------ Verifier ------------------------ */
+
+    public boolean verify(Point commitment, int bits,
+                          PedersenCommitment pc, BulletproofGens gens,
+                          Transcript ts) {
+        return verifyBatch(Arrays.asList(this), Arrays.asList(commitment), bits, pc, gens, Arrays.asList(ts));
+    }
+
+    /**
+     * 批量验证：每个证明的验证方程乘以独立随机权重后相加，G / H / g / h 的系数合并，
+     * 整批只做一次 MSM。任一证明无效时（除可忽略概率外）整批返回 false。
+     *
+     * @param transcripts 与各证明 prove 时同样初始化的 Transcript，一一对应
+     */
+    public static boolean verifyBatch(List<RangeProofPlus> proofs, List<Point> commitments, int bits,
+                                      PedersenCommitment pc, BulletproofGens gens,
+                                      List<Transcript> transcripts) {
+        final int n = bits;
+        if (Integer.bitCount(n) != 1)
+            throw new IllegalArgumentException("bits must be power-of-2");
+        if (proofs.size() != commitments.size() || proofs.size() != transcripts.size())
+            throw new IllegalArgumentException("len mismatch");
+        if (gens.G.size() < n)
+            throw new IllegalArgumentException("not enough generators for " + n + " bits");
+        final int k = Integer.numberOfTrailingZeros(n);
+
+        Scalar[] gCoef = Scalar.fill(n, Scalar.zero()).toArray(new Scalar[0]);
+        Scalar[] hCoef = Scalar.fill(n, Scalar.zero()).toArray(new Scalar[0]);
+        Scalar gBase = Scalar.zero();
+        Scalar hBase = Scalar.zero();
+        List<Point> pts = new ArrayList<>();
+        List<Scalar> sc = new ArrayList<>();
+        List<Scalar> twoPows = RangeProof.twoPowers(n);
+        Scalar sumTwo = new Scalar(BigInteger.ONE.shiftLeft(n).subtract(BigInteger.ONE));
+
+        for (int m = 0; m < proofs.size(); m++) {
+            RangeProofPlus p = proofs.get(m);
+            if (p.L.size() != k || p.R.size() != k) return false;
+            Transcript ts = transcripts.get(m);
+            Point V = commitments.get(m);
+            Scalar w = proofs.size() == 1 ? Scalar.one() : Scalar.random();
+
+            /* 重放挑战 */
+            ts.appendPoint("V", V);
+            ts.appendPoint("A", p.A);
+            Scalar y = ts.challengeScalar("y");
+            Scalar z = ts.challengeScalar("z");
+            Scalar[] ej = new Scalar[k];
+            Scalar[] ejInv = new Scalar[k];
+            for (int j = 0; j < k; j++) {
+                ts.appendPoint("L", p.L.get(j));
+                ts.appendPoint("R", p.R.get(j));
+                ej[j] = ts.challengeScalar("e");
+                ejInv[j] = ej[j].inv();
+            }
+            ts.appendPoint("A1", p.A1);
+            ts.appendPoint("B", p.B);
+            Scalar e = ts.challengeScalar("e");
+
+            /* sᵢ = Π_j (第 j 轮在前半 ? e_j⁻¹ : e_j)，sᵢ⁻¹ 同法展开，无需求逆 */
+            List<Scalar> s = Scalar.vectorOfOnes(1);
+            List<Scalar> sInv = Scalar.vectorOfOnes(1);
+            for (int j = k - 1; j >= 0; j--) {
+                s = Scalar.expandAndMerge(s, ejInv[j], ej[j]);
+                sInv = Scalar.expandAndMerge(sInv, ej[j], ejInv[j]);
+            }
+
+            List<Scalar> yPows = Scalar.powersOf(y, n + 2);
+            List<Scalar> yInvPows = Scalar.powersOf(y.inv(), n);
+            Scalar zSq = z.square();
+            Scalar eSq = e.square();
+            Scalar wESq = w.mul(eSq);
+            Scalar we = w.mul(e);
+
+            /* Â 中 g 的指数：(z - z²)·Σ_{i=1..n} yⁱ - z·y^{n+1}·Σdᵢ */
+            Scalar sumY = Scalar.zero();
+            for (int i = 1; i <= n; i++) sumY = sumY.add(yPows.get(i));
+            Scalar c = z.sub(zSq).mul(sumY).sub(z.mul(yPows.get(n + 1)).mul(zSq).mul(sumTwo));
+
+            /* RHS - LHS = 0：
+             *   Gᵢ: r′e·sᵢ·y⁻ⁱ + e²z        Hᵢ: s′e·sᵢ⁻¹ - e²(z + dᵢ·y^{n-i})
+             *   g : r′s′y - e²c             h : δ′
+             *   A : -e²   V: -e²z²y^{n+1}   Lⱼ: -e²eⱼ²   Rⱼ: -e²eⱼ⁻²   A′: -e   B: -1 */
+            Scalar r1e = p.r1.mul(we);
+            Scalar s1e = p.s1.mul(we);
+            Scalar ze2 = z.mul(wESq);
+            for (int i = 0; i < n; i++) {
+                gCoef[i] = gCoef[i].add(r1e.mul(s.get(i)).mul(yInvPows.get(i))).add(ze2);
+                Scalar di = zSq.mul(twoPows.get(i)).mul(yPows.get(n - i));
+                hCoef[i] = hCoef[i].add(s1e.mul(sInv.get(i))).sub(wESq.mul(z.add(di)));
+            }
+            gBase = gBase.add(w.mul(p.r1.mul(p.s1).mul(yPows.get(1)).sub(eSq.mul(c))));
+            hBase = hBase.add(w.mul(p.d1));
+
+            pts.add(p.A);  sc.add(wESq.neg());
+            pts.add(V);    sc.add(wESq.mul(zSq).mul(yPows.get(n + 1)).neg());
+            for (int j = 0; j < k; j++) {
+                pts.add(p.L.get(j)); sc.add(wESq.mul(ej[j].square()).neg());
+                pts.add(p.R.get(j)); sc.add(wESq.mul(ejInv[j].square()).neg());
+            }
+            pts.add(p.A1); sc.add(we.neg());
+            pts.add(p.B);  sc.add(w.neg());
+        }
+
+        pts.addAll(gens.G.subList(0, n)); sc.addAll(Arrays.asList(gCoef));
+        pts.addAll(gens.H.subList(0, n)); sc.addAll(Arrays.asList(hCoef));
+        pts.add(pc.g); sc.add(gBase);
+        pts.add(pc.h); sc.add(hBase);
+        return Point.msm(pts, sc).equals(Point.INF);
+    }
+
+    /* --- 序列化：定长二进制，见 ProofCodec --- */
+    public byte[] toBytes() {
+        return ProofCodec.encode(this);
+    }
+
+    public static RangeProofPlus fromBytes(byte[] data) {
+        return ProofCodec.decodeRangeProofPlus(ByteBuffer.wrap(data));
+    }
+
+    public static RangeProofPlus fromBytes(ByteBuffer buf) {
+        return ProofCodec.decodeRangeProofPlus(buf);
+    }
+}
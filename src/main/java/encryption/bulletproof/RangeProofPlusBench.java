@@ -0,0 +1,79 @@
+package encryption.bulletproof;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 对比 RangeProof 与 RangeProofPlus：证明大小、prove / verify 耗时，
+ * 以及 RangeProofPlus 批量验证的单证明均摊耗时。各取 ITERATIONS 次平均值。
+ */
+public class RangeProofPlusBench {
+
+    private static final int ITERATIONS = 10;
+    private static final int BATCH = 8;
+    private static final byte[] DOMAIN = "BP".getBytes();
+
+    public static void main(String[] args) {
+        PedersenCommitment pc = new PedersenCommitment();
+        for (int bits : RangeProofProfile.WIDTHS) {
+            BulletproofGens gens = BulletproofGens.shared(bits, 1);
+            System.out.println("=== " + bits + "-bit range proof ===");
+
+            long proveBp = 0, verifyBp = 0, proveBpp = 0, verifyBpp = 0;
+            int sizeBp = 0, sizeBpp = 0;
+            List<RangeProofPlus> batch = new ArrayList<>();
+            List<Point> batchV = new ArrayList<>();
+            for (int i = 0; i < ITERATIONS; i++) {
+                long v = randomValue(bits);
+                Scalar r = Scalar.random();
+                Point V = pc.commit(Scalar.fromLong(v), r);
+
+                long t0 = System.nanoTime();
+                RangeProof bp = RangeProof.prove(v, r, bits, pc, gens, new Transcript(DOMAIN));
+                long t1 = System.nanoTime();
+                boolean okBp = bp.verify(V, bits, pc, gens, new Transcript(DOMAIN));
+                long t2 = System.nanoTime();
+                RangeProofPlus bpp = RangeProofPlus.prove(v, r, bits, pc, gens, new Transcript(DOMAIN));
+                long t3 = System.nanoTime();
+                boolean okBpp = bpp.verify(V, bits, pc, gens, new Transcript(DOMAIN));
+                long t4 = System.nanoTime();
+
+                if (!okBp || !okBpp)
+                    System.out.println("verification failed at iteration " + i + ": bp=" + okBp + " bp+=" + okBpp);
+                proveBp += t1 - t0;
+                verifyBp += t2 - t1;
+                proveBpp += t3 - t2;
+                verifyBpp += t4 - t3;
+                sizeBp = bp.toBytes().length;
+                sizeBpp = bpp.toBytes().length;
+                if (batch.size() < BATCH) {
+                    batch.add(bpp);
+                    batchV.add(V);
+                }
+            }
+
+            List<Transcript> ts = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) ts.add(new Transcript(DOMAIN));
+            long t0 = System.nanoTime();
+            boolean okBatch = RangeProofPlus.verifyBatch(batch, batchV, bits, pc, gens, ts);
+            long batchNs = System.nanoTime() - t0;
+
+            System.out.printf("Bulletproofs : size %4d B, prove %.3f ms, verify %.3f ms%n",
+                    sizeBp, ms(proveBp), ms(verifyBp));
+            System.out.printf("Bulletproofs+: size %4d B, prove %.3f ms, verify %.3f ms%n",
+                    sizeBpp, ms(proveBpp), ms(verifyBpp));
+            System.out.printf("Bulletproofs+ batch of %d: %s, %.3f ms per proof%n",
+                    batch.size(), okBatch ? "ok" : "FAILED", batchNs / (double) batch.size() / 1_000_000.0);
+            System.out.println();
+        }
+    }
+
+    private static long randomValue(int bits) {
+        long v = Scalar.random().toLong();
+        return bits == 64 ? v & Long.MAX_VALUE : v & ((1L << bits) - 1);
+    }
+
+    private static double ms(long totalNs) {
+        return totalNs / (double) ITERATIONS / 1_000_000.0;
+    }
+}
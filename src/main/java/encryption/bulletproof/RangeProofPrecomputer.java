@@ -0,0 +1,80 @@
+package encryption.bulletproof;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * RangeProof 的离线 / 在线拆分。
+ * <p>
+ * 后台线程预先生成与证明值无关的 sL、sR、ρ、τ₁、τ₂ 及 S、α·h、τ₁·h、τ₂·h，
+ * 放入有界池；{@link #prove} 取出一份后只做依赖 v 的在线部分
+ * （A 只需加法、T1/T2 各一次 g 的标量乘、再加 IPP）。
+ * 池空时当场生成一份，不阻塞调用方。
+ * <p>
+ * 池中每一份只会被取出一次；一份预计算量被复用会直接泄露证明值。
+ */
+public final class RangeProofPrecomputer implements AutoCloseable {
+
+    private final RangeProofProfile profile;
+    private final PedersenCommitment pc;
+    private final BlockingQueue<RangeProof.Blinding> ready;
+    private final Thread worker;
+    private volatile boolean closed;
+
+    /**
+     * @param capacity 池容量（每份约 2·bits 个标量与 4 个点）
+     */
+    public RangeProofPrecomputer(RangeProofProfile profile, PedersenCommitment pc, int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.profile = profile;
+        this.pc = pc;
+        this.ready = new ArrayBlockingQueue<>(capacity);
+        this.worker = new Thread(this::fill, "range-proof-precompute-" + profile.bits);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    private void fill() {
+        try {
+            while (!closed) ready.put(newBlinding());
+        } catch (InterruptedException e) {
+            // close() 结束后台线程
+        }
+    }
+
+    private RangeProof.Blinding newBlinding() {
+        return RangeProof.Blinding.create(profile.bits, pc, profile.gens, null, RangeProof.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /** 当前池中可直接使用的份数 */
+    public int available() {
+        return ready.size();
+    }
+
+    public RangeProof prove(long v, Scalar blind, Transcript ts) {
+        return prove(v, blind, ts, null);
+    }
+
+    /**
+     * 在线证明：消耗池中一份预计算量。
+     *
+     * @param pool 在线部分（IPP）使用的 ForkJoinPool，可为 null
+     * @throws IllegalArgumentException v 超出本配置位宽
+     */
+    public RangeProof prove(long v, Scalar blind, Transcript ts, ForkJoinPool pool) {
+        profile.checkFits(v);
+        RangeProof.Blinding pre = ready.poll();
+        if (pre == null) pre = newBlinding();
+        return RangeProof.prove(v, blind, profile.twoPows, pc, profile.gens, ts, pre,
+                pool, RangeProof.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /** 停止后台线程并丢弃池中尚未使用的随机量 */
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+        ready.clear();
+    }
+}
@@ -0,0 +1,109 @@
+package encryption.bulletproof;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 按位宽划分的范围证明配置：8 / 16 / 32 / 64 位。
+ * <p>
+ * 证明与验证开销大致与位宽成正比，小额金额不必总按 64 位证明。
+ * 每个位宽只构造一次，持有该宽度的共享生成器 {@link BulletproofGens#shared} 与 2ⁱ 表；
+ * 证明头部的 rounds 字段即 log₂(位宽)，verifier 用 {@link #verify(ByteBuffer, Point, PedersenCommitment, Transcript)}
+ * 按头部分派到对应配置。
+ */
+public final class RangeProofProfile {
+
+    /** 支持的位宽，升序 */
+    public static final int[] WIDTHS = {8, 16, 32, 64};
+
+    private static final RangeProofProfile[] PROFILES = new RangeProofProfile[WIDTHS.length];
+
+    public final int bits;
+    public final BulletproofGens gens;
+    final List<Scalar> twoPows;             // 2⁰ … 2^{bits-1}
+
+    private RangeProofProfile(int bits) {
+        this.bits = bits;
+        this.gens = BulletproofGens.shared(bits, 1);
+        this.twoPows = Collections.unmodifiableList(RangeProof.twoPowers(bits));
+    }
+
+    /** 取指定位宽的配置（首次使用时构造并缓存） */
+    public static RangeProofProfile forWidth(int bits) {
+        for (int i = 0; i < WIDTHS.length; i++) {
+            if (WIDTHS[i] == bits) return profile(i);
+        }
+        throw new IllegalArgumentException("unsupported range width " + bits);
+    }
+
+    /**
+     * 取能覆盖 [0, bound] 的最小位宽配置。
+     *
+     * @param bound 声明的上界（按无符号数解释，负数即落到 64 位）
+     */
+    public static RangeProofProfile forBound(long bound) {
+        int need = 64 - Long.numberOfLeadingZeros(bound);
+        for (int i = 0; i < WIDTHS.length; i++) {
+            if (WIDTHS[i] >= need) return profile(i);
+        }
+        throw new IllegalArgumentException("bound exceeds 64 bits");
+    }
+
+    /**
+     * 为向量承诺（A、S 等）预建生成器查表，见 {@link PreparedVectorCommitter}。
+     * 各位宽的 Gᵢ / Hᵢ 是同一序列的前缀，准备最大位宽即覆盖全部配置；内存约 8 MB。
+     */
+    public static void prepareGenerators() {
+        PreparedVectorCommitter.prepare(forWidth(WIDTHS[WIDTHS.length - 1]).gens);
+    }
+
+    private static RangeProofProfile profile(int i) {
+        RangeProofProfile p = PROFILES[i];
+        if (p == null) {
+            synchronized (PROFILES) {
+                p = PROFILES[i];
+                if (p == null) PROFILES[i] = p = new RangeProofProfile(WIDTHS[i]);
+            }
+        }
+        return p;
+    }
+
+    /* -------------------------- Prover -------------------------- */
+
+    public RangeProof prove(long v, Scalar blind, PedersenCommitment pc, Transcript ts) {
+        return prove(v, blind, pc, ts, null);
+    }
+
+    /**
+     * @throws IllegalArgumentException v 超出本位宽（证明必然无法通过验证，提前拒绝）
+     */
+    public RangeProof prove(long v, Scalar blind, PedersenCommitment pc, Transcript ts, ForkJoinPool pool) {
+        checkFits(v);
+        return RangeProof.prove(v, blind, twoPows, pc, gens, ts, pool, RangeProof.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    void checkFits(long v) {
+        if (bits < 64 && (v >>> bits) != 0)
+            throw new IllegalArgumentException("value does not fit in " + bits + " bits");
+    }
+
+    /* ------------------------ Verifier ------------------------ */
+
+    /** 验证一个已解码的证明；位宽与本配置不符时直接返回 false */
+    public boolean verify(RangeProof proof, Point commitment, PedersenCommitment pc, Transcript ts) {
+        return proof.verify(commitment, twoPows, pc, gens, ts);
+    }
+
+    /**
+     * hub 侧入口：从线上缓冲区读取头部位宽，选择对应配置，解码并验证。
+     * buf 的 position 前移到证明末尾。
+     *
+     * @throws IllegalArgumentException 编码不合法或位宽不受支持
+     */
+    public static boolean verify(ByteBuffer buf, Point commitment, PedersenCommitment pc, Transcript ts) {
+        RangeProofProfile profile = forWidth(ProofCodec.peekRangeWidth(buf));
+        return profile.verify(ProofCodec.decodeRangeProof(buf), commitment, pc, ts);
+    }
+}
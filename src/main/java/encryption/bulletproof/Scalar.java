@@ -3,6 +3,7 @@ package encryption.bulletproof;
 import java.math.BigInteger;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -95,9 +96,19 @@ public final class Scalar {
         List<Scalar> out=new ArrayList<>(n); Scalar cur=one();
         for(int i=0;i<n;i++){ out.add(cur); cur=cur.mul(base); } return out;
     }
+    /** 批量求逆（Montgomery 技巧）：一次 modInverse 加 3(n-1) 次乘法；含零元素时抛 ArithmeticException */
     public static List<Scalar> inverseVector(List<Scalar>v){
-        List<Scalar> out=new ArrayList<>(v.size());
-        for(Scalar s:v) out.add(s.inv()); return out;
+        int n=v.size(); if(n==0) return new ArrayList<>(0);
+        BigInteger[] prefix=new BigInteger[n]; BigInteger acc=BigInteger.ONE;
+        for(int i=0;i<n;i++){ acc=acc.multiply(v.get(i).v).mod(R); prefix[i]=acc; }
+        BigInteger inv=acc.modInverse(R);
+        Scalar[] out=new Scalar[n];
+        for(int i=n-1;i>0;i--){
+            out[i]=new Scalar(inv.multiply(prefix[i-1]));
+            inv=inv.multiply(v.get(i).v).mod(R);
+        }
+        out[0]=new Scalar(inv);
+        return new ArrayList<>(Arrays.asList(out));
     }
     public static List<Scalar> vectorOfOnes(int n){ return fill(n,one()); }
     public static List<Scalar> expandAndMerge(List<Scalar>s,Scalar l,Scalar r){
@@ -1,53 +1,137 @@
 package encryption.bulletproof;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 /**
- * 极简 SHA-256 Sponge，用作 Fiat–Shamir Transcript
+ * 增量式 SHA-256 Transcript（Fiat–Shamir）。
+ * <p>
+ * 所有写入直接喂给一个持续更新的摘要状态；派生挑战时只 clone 当前状态并补上 label，
+ * 不再对累积缓冲区整体重哈希，整条 transcript 的哈希量为 O(总字节数)。
+ * <ul>
+ *   <li>{@link Version#V1}：与旧实现逐字节一致（domain ‖ label ‖ data ‖ …），已有证明的挑战值不变；</li>
+ *   <li>{@link Version#V2}：Merlin/STROBE 风格分帧，每次写入带操作码与长度前缀，消除 label/数据边界歧义。</li>
+ * </ul>
+ * prover 与 verifier 必须使用同一版本。
  */
 public class Transcript {
 
+    public enum Version { V1, V2 }
+
     private static final String ALG = "SHA-256";
-    private final ByteArrayOutputStream sponge = new ByteArrayOutputStream();
+    private static final byte[] V2_PROTOCOL = "LightHub-Transcript-v2".getBytes();
+
+    /* V2 分帧操作码 */
+    private static final byte OP_DOMAIN = 0x01;
+    private static final byte OP_APPEND = 0x02;
+    private static final byte OP_CHALLENGE = 0x03;
+
+    private final MessageDigest state;
+    private final Version version;
 
     public Transcript(byte[] domain) {
-        try { sponge.write(domain); }
-        catch (IOException e) { throw new RuntimeException(e); }
+        this(domain, Version.V1);
+    }
+
+    public Transcript(byte[] domain, Version version) {
+        this.version = version;
+        try { this.state = MessageDigest.getInstance(ALG); }
+        catch (NoSuchAlgorithmException e) { throw new RuntimeException(e); }
+
+        if (version == Version.V2) {
+            state.update(V2_PROTOCOL);
+            state.update(OP_DOMAIN);
+            absorbLength(domain.length);
+        }
+        state.update(domain);
+    }
+
+    private Transcript(Transcript other) {
+        this.version = other.version;
+        this.state = cloneState(other.state);
+    }
+
+    /** 复制当前状态：两份 transcript 之后各自独立演进 */
+    public Transcript fork() {
+        return new Transcript(this);
+    }
+
+    public Version version() {
+        return version;
     }
 
     public void appendPoint(String label, byte[] pointBytes) {
-        try {
-            sponge.write(label.getBytes());
-            sponge.write(pointBytes);
-        } catch (IOException e) { throw new RuntimeException(e); }
+        appendMessage(label, pointBytes);
+    }
+
+    /** 直接写入点的缓存编码，重复写入同一个点不再分配 */
+    public void appendPoint(String label, Point p) {
+        appendMessage(label, p.encoding());
     }
 
     public void appendScalar(String label, Scalar s) {
-        try {
-            sponge.write(label.getBytes());
-            sponge.write(s.toBytes());
-        } catch (IOException e) { throw new RuntimeException(e); }
+        appendMessage(label, s.toBytes());
     }
 
     /** 生成新挑战并把其哈希写回 transcript */
     public Scalar challengeScalar(String label) {
-        try {
-            MessageDigest md = MessageDigest.getInstance(ALG);
-            md.update(sponge.toByteArray());
-            md.update(label.getBytes());
-            byte[] out = md.digest();
+        if (version == Version.V2) {
+            state.update(OP_CHALLENGE);
+            absorbLabel(label);
+        }
+        MessageDigest md = cloneState(state);
+        if (version == Version.V1) absorbLabel(md, label);
+        byte[] out = md.digest();
+
+        // 链接熵以供后续使用
+        if (version == Version.V1) absorbLabel(label);
+        state.update(out);
+
+        return new Scalar(new BigInteger(1, out));
+    }
+
+    private void appendMessage(String label, byte[] data) {
+        if (version == Version.V2) {
+            state.update(OP_APPEND);
+            absorbLabel(label);
+            absorbLength(data.length);
+        } else {
+            absorbLabel(label);
+        }
+        state.update(data);
+    }
+
+    private void absorbLabel(String label) {
+        if (version == Version.V2) absorbLength(isAscii(label) ? label.length() : label.getBytes().length);
+        absorbLabel(state, label);
+    }
 
-            // 链接熵以供后续使用
-            sponge.write(label.getBytes());
-            sponge.write(out);
+    /** ASCII label 逐字节写入，避免 getBytes() 分配；非 ASCII 时按旧实现的默认编码 */
+    private static void absorbLabel(MessageDigest md, String label) {
+        if (!isAscii(label)) {
+            md.update(label.getBytes());
+            return;
+        }
+        for (int i = 0; i < label.length(); i++) md.update((byte) label.charAt(i));
+    }
 
-            return new Scalar(new BigInteger(1, out));
-        } catch (NoSuchAlgorithmException | IOException e) {
-            throw new RuntimeException(e);
+    private static boolean isAscii(String label) {
+        for (int i = 0; i < label.length(); i++) {
+            if (label.charAt(i) >= 0x80) return false;
         }
+        return true;
+    }
+
+    private void absorbLength(int len) {
+        state.update((byte) (len >>> 24));
+        state.update((byte) (len >>> 16));
+        state.update((byte) (len >>> 8));
+        state.update((byte) len);
+    }
+
+    private static MessageDigest cloneState(MessageDigest md) {
+        try { return (MessageDigest) md.clone(); }
+        catch (CloneNotSupportedException e) { throw new RuntimeException(e); }
     }
 }
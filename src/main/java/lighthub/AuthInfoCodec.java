@@ -0,0 +1,130 @@
+package lighthub;
+
+import encryption.bulletproof.Point;
+import org.aion.tetryon.FrameCodec;
+import org.aion.tetryon.PointCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * RDBS 承诺 / 签名 / 认证信息的定长二进制编码。
+ * <p>
+ * 布局（大端），帧头见 {@link FrameCodec}：
+ * <pre>
+ *   header   : version:1B | type:1B | flags:1B        flags bit0 = 点压缩
+ *   CM       : C
+ *   Sig      : Z | S | T | hatS
+ *   AuthInfo : C | Z | S | T | hatS
+ * </pre>
+ * G1 点压缩 32 字节 / 不压缩 64 字节，hatS 压缩 64 字节 / 不压缩 128 字节，见 {@link PointCodec}。
+ * 压缩后 AuthInfo 共 195 字节；不压缩时解码免去每个点一次开方。
+ * <p>
+ * 点的读写、长度检查与流式解码由 {@link FrameCodec} 完成，本类只给出各消息的字段顺序。
+ * 编码写入调用方的 ByteBuffer（可为 direct buffer）；解码直接在缓冲区上读取并校验点在曲线上。
+ * {@link #tryDecodeAuthInfo} 用于流式读取：数据不足一帧时返回 null 且不移动 position。
+ */
+public final class AuthInfoCodec {
+
+    public static final byte VERSION = 1;
+
+    public static final byte TYPE_CM = 1;
+    public static final byte TYPE_SIG = 2;
+    public static final byte TYPE_AUTH_INFO = 3;
+
+    /** 各类消息的 G1 / G2 点数 */
+    private static final int CM_G1 = 1;
+    private static final int SIG_G1 = 3;
+    private static final int SIG_G2 = 1;
+
+    private AuthInfoCodec() {}
+
+    /* -------------------------- 长度 -------------------------- */
+
+    public static int cmSize(boolean compressed) {
+        return FrameCodec.size(compressed, CM_G1, 0);
+    }
+
+    public static int sigSize(boolean compressed) {
+        return FrameCodec.size(compressed, SIG_G1, SIG_G2);
+    }
+
+    public static int authInfoSize(boolean compressed) {
+        return FrameCodec.size(compressed, CM_G1 + SIG_G1, SIG_G2);
+    }
+
+    /* -------------------------- 编码 -------------------------- */
+
+    public static byte[] encode(RDBS.CM cm, boolean compressed) {
+        ByteBuffer buf = ByteBuffer.allocate(cmSize(compressed));
+        encode(cm, compressed, buf);
+        return buf.array();
+    }
+
+    public static void encode(RDBS.CM cm, boolean compressed, ByteBuffer out) {
+        FrameCodec.writer(out, VERSION, TYPE_CM, compressed).g1(cm.C.p);
+    }
+
+    public static byte[] encode(RDBS.Sig sig, boolean compressed) {
+        ByteBuffer buf = ByteBuffer.allocate(sigSize(compressed));
+        encode(sig, compressed, buf);
+        return buf.array();
+    }
+
+    public static void encode(RDBS.Sig sig, boolean compressed, ByteBuffer out) {
+        putSig(FrameCodec.writer(out, VERSION, TYPE_SIG, compressed), sig);
+    }
+
+    public static byte[] encode(RDBS.AuthInfo info, boolean compressed) {
+        ByteBuffer buf = ByteBuffer.allocate(authInfoSize(compressed));
+        encode(info, compressed, buf);
+        return buf.array();
+    }
+
+    public static void encode(RDBS.AuthInfo info, boolean compressed, ByteBuffer out) {
+        putSig(FrameCodec.writer(out, VERSION, TYPE_AUTH_INFO, compressed).g1(info.cm.C.p), info.sig);
+    }
+
+    private static void putSig(FrameCodec.Writer w, RDBS.Sig sig) {
+        w.g1(sig.Z.p).g1(sig.S.p).g1(sig.T.p).g2(sig.hatS);
+    }
+
+    /* -------------------------- 解码 -------------------------- */
+
+    /**
+     * 从 in 的当前位置解码，并把 position 前移到末尾。
+     *
+     * @throws IllegalArgumentException 版本 / 类型 / 长度不符，或点不合法
+     */
+    public static RDBS.CM decodeCM(ByteBuffer in) {
+        return readCM(FrameCodec.reader(in, VERSION, TYPE_CM, CM_G1, 0));
+    }
+
+    public static RDBS.Sig decodeSig(ByteBuffer in) {
+        return readSig(FrameCodec.reader(in, VERSION, TYPE_SIG, SIG_G1, SIG_G2));
+    }
+
+    public static RDBS.AuthInfo decodeAuthInfo(ByteBuffer in) {
+        FrameCodec.Reader r = FrameCodec.reader(in, VERSION, TYPE_AUTH_INFO, CM_G1 + SIG_G1, SIG_G2);
+        RDBS.CM cm = readCM(r);
+        return new RDBS.AuthInfo(cm, readSig(r));
+    }
+
+    /**
+     * 流式解码：in 中不足一整帧时返回 null，position 不变，调用方继续读入后重试；
+     * 否则解码一帧并前移 position。
+     */
+    public static RDBS.AuthInfo tryDecodeAuthInfo(ByteBuffer in) {
+        return FrameCodec.tryDecode(in, CM_G1 + SIG_G1, SIG_G2, AuthInfoCodec::decodeAuthInfo);
+    }
+
+    private static RDBS.CM readCM(FrameCodec.Reader r) {
+        return new RDBS.CM(new Point(r.g1()));
+    }
+
+    private static RDBS.Sig readSig(FrameCodec.Reader r) {
+        Point Z = new Point(r.g1());
+        Point S = new Point(r.g1());
+        Point T = new Point(r.g1());
+        return new RDBS.Sig(Z, S, T, r.g2());
+    }
+}
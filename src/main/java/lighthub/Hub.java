@@ -24,7 +24,53 @@ public class Hub {
         this.value = value;
     }
 
+    /** 非空时签名消耗预签名，见 {@link PresignaturePool} */
+    public PresignaturePool presignatures;
+
+    /** 只依赖密钥的预计算量，由 {@link #setKeyPair(RDBS, RDBS.KeyPair)} 建立 */
+    public RDBS.PreparedSigningKey preparedKey;
+
     public void setKeyPair(RDBS.KeyPair keyPair) {
         this.keyPair = keyPair;
+        this.preparedKey = null;
+    }
+
+    /** 设置密钥并一次性建立签名预计算量 */
+    public void setKeyPair(RDBS rdbs, RDBS.KeyPair keyPair) {
+        this.keyPair = keyPair;
+        this.preparedKey = rdbs.prepare(keyPair);
+    }
+
+    /** 为当前密钥启动预签名池；替换旧池时关闭旧池 */
+    public void enablePresigning(RDBS rdbs, int capacity, int threads) {
+        if (presignatures != null) presignatures.close();
+        presignatures = new PresignaturePool(rdbs, keyPair, capacity, threads);
+    }
+
+    /** 非空时 updAC 提交给批量签名服务，见 {@link RdbsSigningService} */
+    public RdbsSigningService signingService;
+
+    /** 为当前密钥启动批量签名服务；替换旧服务时关闭旧服务 */
+    public void enableSigningService(RDBS rdbs, int maxBatch, long maxDelayMicros) {
+        if (preparedKey == null || !preparedKey.matches(rdbs, keyPair)) preparedKey = rdbs.prepare(keyPair);
+        if (signingService != null) signingService.close();
+        signingService = new RdbsSigningService(rdbs, preparedKey, maxBatch, maxDelayMicros);
+    }
+
+    /** 通道开通时签发初始承诺；有预计算密钥时走查表路径 */
+    public RDBS.AuthInfo authCom(RDBS rdbs, Scalar v, Scalar r) {
+        if (preparedKey != null && preparedKey.matches(rdbs, keyPair))
+            return rdbs.authCom(v, r, preparedKey);
+        return rdbs.authCom(v, keyPair.x, r);
+    }
+
+    /** 对更新后的承诺签名：依次优先批量签名服务、预签名池、预计算密钥 */
+    public RDBS.AuthInfo updAC(RDBS rdbs, RDBS.CM cm) {
+        if (signingService != null && signingService.rdbs == rdbs && signingService.key.keyPair == keyPair)
+            return signingService.updAC(cm);
+        if (presignatures != null && presignatures.keyPair == keyPair) return rdbs.updAC(cm, presignatures);
+        if (preparedKey != null && preparedKey.matches(rdbs, keyPair))
+            return rdbs.updAC(cm, preparedKey);
+        return rdbs.updAC(cm, keyPair.x);
     }
 }
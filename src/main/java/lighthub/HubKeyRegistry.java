@@ -0,0 +1,181 @@
+package lighthub;
+
+import accio.RSUC;
+import encryption.bulletproof.Point;
+import encryption.bulletproof.Scalar;
+import global.Global;
+import org.aion.tetryon.Fp2;
+import org.aion.tetryon.G2Point;
+import org.aion.tetryon.Util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * hub 公钥注册表：按公钥指纹保存已准备好的验证上下文（{@link RDBS.VerifyingKey} /
+ * {@link RSUC.VerifyingKey}），验证方只需传入 keyId。
+ * <p>
+ * 指纹为 SHA-256(方案标签 ‖ g ‖ h ‖ hatG ‖ 公钥) 的十六进制串，同一公钥在不同参数下得到不同 keyId。
+ * 子群检查与配对编码只在注册时做一次。容量按条目数限制，按访问顺序淘汰最久未用的 key，
+ * 适合 hub 很多或定期轮换密钥的部署；被淘汰的 key 重新注册即可。
+ */
+public class HubKeyRegistry {
+
+    private static final byte[] TAG_RDBS = "RDBS".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TAG_RSUC = "RSUC".getBytes(StandardCharsets.US_ASCII);
+
+    private final Map<String, Object> keys;
+
+    public static void main(String[] args) throws Exception {
+        RDBS rdbs = new RDBS(Global.g, Global.h, Global.hatG);
+        RSUC rsuc = new RSUC(Global.g, Global.h, Global.hatG);
+        RDBS.KeyPair a = rdbs.keyGen();
+        RDBS.KeyPair b = rdbs.keyGen();
+        RSUC.KeyPair c = rsuc.keyGen();
+
+        // 容量 2：访问 a 之后再注册 c，应淘汰最久未用的 b
+        HubKeyRegistry registry = new HubKeyRegistry(2);
+        String idA = registry.register(rdbs, a.X);
+        String idB = registry.register(rdbs, b.X);
+        RDBS.AuthInfo info = rdbs.authCom(Scalar.random(), a.x, Scalar.random());
+        boolean authCheck = registry.vfAuth(rdbs, idA, info.cm, info.sig)
+                && !registry.vfAuth(rdbs, idA, info.cm, new RDBS.Sig(info.sig.Z.add(rdbs.g), info.sig.S, info.sig.T, info.sig.hatS));
+        String idC = registry.register(rsuc, c.X0, c.X1);
+        boolean lruCheck = registry.size() == 2 && registry.contains(idA) && !registry.contains(idB)
+                && registry.contains(idC) && registry.register(rdbs, a.X).equals(idA);
+        if (!authCheck || !lruCheck){
+            System.out.println("registry check error!");
+        }else {
+            System.out.println("registry check success!");
+        }
+
+        // 不在曲线上的公钥、被淘汰的 keyId、类型不符的 keyId 都应被拒绝
+        G2Point offCurve = new G2Point(a.X.x, a.X.y.add(Fp2.one()));
+        boolean rejectCheck = rejects(() -> registry.register(rdbs, offCurve))
+                && rejects(() -> registry.rdbsKey(idB))
+                && rejects(() -> registry.rdbsKey(idC));
+        if (!rejectCheck){
+            System.out.println("invalid key check error!");
+        }else {
+            System.out.println("invalid key check success!");
+        }
+    }
+
+    private static boolean rejects(Runnable r) {
+        try {
+            r.run();
+            return false;
+        } catch (IllegalArgumentException expected) {
+            return true;
+        }
+    }
+
+    /** @param capacity 最多保存的公钥数 */
+    public HubKeyRegistry(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.keys = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * 注册一个 RDBS 公钥，返回其 keyId；已注册时直接返回。
+     *
+     * @throws IllegalArgumentException X 不是合法的 G2 子群点
+     */
+    public String register(RDBS rdbs, G2Point X) {
+        String id = fingerprint(TAG_RDBS, rdbs.g, rdbs.h, rdbs.hatG, X);
+        synchronized (keys) {
+            if (keys.get(id) != null) return id;
+        }
+        RDBS.VerifyingKey key = rdbs.verifyingKey(X);
+        synchronized (keys) {
+            keys.put(id, key);
+        }
+        return id;
+    }
+
+    /**
+     * 注册一个 RSUC 公钥 (X0, X1)，返回其 keyId；已注册时直接返回。
+     *
+     * @throws IllegalArgumentException X0 或 X1 不是合法的 G2 子群点
+     */
+    public String register(RSUC rsuc, G2Point X0, G2Point X1) {
+        String id = fingerprint(TAG_RSUC, rsuc.g, rsuc.h, rsuc.hatG, X0, X1);
+        synchronized (keys) {
+            if (keys.get(id) != null) return id;
+        }
+        RSUC.VerifyingKey key = rsuc.verifyingKey(X0, X1);
+        synchronized (keys) {
+            keys.put(id, key);
+        }
+        return id;
+    }
+
+    /** @throws IllegalArgumentException keyId 未注册、已被淘汰或不是 RDBS 公钥 */
+    public RDBS.VerifyingKey rdbsKey(String keyId) {
+        return lookup(keyId, RDBS.VerifyingKey.class);
+    }
+
+    /** @throws IllegalArgumentException keyId 未注册、已被淘汰或不是 RSUC 公钥 */
+    public RSUC.VerifyingKey rsucKey(String keyId) {
+        return lookup(keyId, RSUC.VerifyingKey.class);
+    }
+
+    public boolean vfAuth(RDBS rdbs, String keyId, RDBS.CM cm, RDBS.Sig sig) throws Exception {
+        return rdbs.vfAuth(cm, sig, rdbsKey(keyId));
+    }
+
+    public boolean vfAuth(RSUC rsuc, String keyId, RSUC.CM cm, RSUC.Sig sig) throws Exception {
+        return rsuc.vfAuth(cm, sig, rsucKey(keyId));
+    }
+
+    /** 密钥轮换后主动移除旧 key */
+    public void remove(String keyId) {
+        synchronized (keys) {
+            keys.remove(keyId);
+        }
+    }
+
+    public boolean contains(String keyId) {
+        synchronized (keys) {
+            return keys.containsKey(keyId);
+        }
+    }
+
+    public int size() {
+        synchronized (keys) {
+            return keys.size();
+        }
+    }
+
+    private <T> T lookup(String keyId, Class<T> type) {
+        Object key;
+        synchronized (keys) {
+            key = keys.get(keyId);
+        }
+        if (!type.isInstance(key)) throw new IllegalArgumentException("unknown hub key " + keyId);
+        return type.cast(key);
+    }
+
+    private static String fingerprint(byte[] tag, Point g, Point h, G2Point hatG, G2Point... pk) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        md.update(tag);
+        md.update(g.toBytes());
+        md.update(h.toBytes());
+        md.update(Util.serializeG2(hatG));
+        for (G2Point X : pk) md.update(Util.serializeG2(X));
+        return Util.bytesToHex(md.digest());
+    }
+}
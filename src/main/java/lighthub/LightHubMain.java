@@ -7,6 +7,9 @@ import encryption.bulletproof.*;
 import global.Global;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class LightHubMain {
 
@@ -23,9 +26,10 @@ public class LightHubMain {
 
         RDBS rdbs = new RDBS(Global.g, Global.h, Global.hatG);
         RDBS.KeyPair keyPair = rdbs.keyGen();
-        hubLeft.setKeyPair(keyPair);
+        hubLeft.setKeyPair(rdbs, keyPair);
 
-        hubRight.setKeyPair(keyPair);
+        hubRight.setKeyPair(rdbs, keyPair);
+        hubLeft.enablePresigning(rdbs, 64, 1);
 
         Scalar rLeft = Scalar.random();
         UserHubChannel payerHub = new UserHubChannel(payer, hubLeft);
@@ -47,23 +51,31 @@ public class LightHubMain {
         Scalar prove_r = rLeft.sub(amt_r);
 
         PedersenCommitment pc = new PedersenCommitment();       // 含基点 g, h
-        BulletproofGens gens  = new BulletproofGens(Global.VALUEBITS, 1);
-
-        Transcript tsProver = new Transcript("BP".getBytes());
-        RangeProof proof = RangeProof.prove(prove_v.toLong(), prove_r, Global.VALUEBITS, pc, gens, tsProver);
-
         Point preValue = payerHub.getRealValuePoint();
 
-        Point commitment_ = authInfoLeft.cm.C.add(blind_amt.neg()).add(preValue.neg());
+        // 余额与金额合在一个聚合证明里，绑定通道承诺；hub 对付款方通道只做这一次检查
+        // （通道认证 + 证明），用户超时重发同一消息时命中缓存，不再重复验证
+        PaymentProof payment = PaymentProof.prove(prove_v.toLong(), prove_r, value.toLong(), amt_r,
+                authInfoLeft.cm.C, preValue, pc, new Transcript("PAY".getBytes()));
+        VerificationCache cache = new VerificationCache(4096);
+        byte[] wire = payment.toBytes();
 
-        // ----- Verify 计时 -----
-        Transcript tsVer = new Transcript("BP".getBytes());
-        boolean ok = proof.verify(commitment_, Global.VALUEBITS, pc, gens, tsVer);
+        boolean ok = cache.verifyPayment(rdbs, authInfoLeft, keyPair.X, preValue, blind_amt,
+                wire, "PAY".getBytes(), pc);
         System.out.println("ok1 = " + ok);
+        ok = cache.verifyPayment(rdbs, authInfoLeft, keyPair.X, preValue, blind_amt,
+                wire, "PAY".getBytes(), pc);
+        System.out.println("ok1 (retransmitted) = " + ok + ", cache hits = " + cache.hits());
+
+        // L₀ 的 y 坐标改一位：解码时不检查，验证访问 L₀ 时才发现不在曲线上，应按失败返回
+        byte[] badL = wire.clone();
+        int l0 = 3 + 4 * 64 + 3 * 32;                        // header | A S T1 T2 | taux mu tHat
+        badL[l0 + 63] ^= 1;
+        ok = !PaymentProof.verify(badL, authInfoLeft.cm.C, preValue, blind_amt, pc, new Transcript("PAY".getBytes()));
+        System.out.println("malformed L rejected = " + ok);
 
         // hub check value and sign new state
-        boolean checkLeft = rdbs.vfAuth(authInfoLeft.cm, authInfoLeft.sig, keyPair.X);
-        boolean checkRight = rdbs.vfAuth(authInfoRight.cm, authInfoRight.sig, keyPair.X);
+        boolean checkRight = cache.vfAuth(rdbs, authInfoRight.cm, authInfoRight.sig, keyPair.X);
 
         authInfoLeft = payerHub.sendValue(blind_amt);
         authInfoRight = payeeHub.receiveValue(blind_amt);
@@ -80,5 +92,30 @@ public class LightHubMain {
         System.out.println("ok4 = " + ok);
 
         authInfoRight = payeeHub.randChannel();
+
+        // hubRight 的 updAC 交给批量签名服务：并发提交的承诺合成一批签名
+        hubRight.enableSigningService(rdbs, 16, 2000);
+        List<RDBS.CM> cms = new ArrayList<>();
+        List<CompletableFuture<RDBS.AuthInfo>> pending = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            RDBS.CM cm = new RDBS.CM(rdbs.genPedCom(Scalar.random(), Scalar.random()));
+            cms.add(cm);
+            pending.add(hubRight.signingService.submit(cm));
+        }
+        ok = true;
+        for (int i = 0; i < pending.size(); i++) {
+            RDBS.AuthInfo signed = pending.get(i).get();
+            ok &= signed.cm == cms.get(i) && rdbs.vfAuth(signed.cm, signed.sig, keyPair.X);
+            RDBS.Sig forged = new RDBS.Sig(signed.sig.Z.add(Global.g), signed.sig.S, signed.sig.T, signed.sig.hatS);
+            ok &= !rdbs.vfAuth(signed.cm, forged, keyPair.X);
+        }
+        UserHubChannel serviceHub = new UserHubChannel(payee, hubRight);
+        serviceHub.setRDBS(rdbs);
+        serviceHub.blindChannel(Scalar.random());
+        serviceHub.receiveValue(blind_amt);
+        ok &= serviceHub.checkReceiveValue(blind_amt);
+        System.out.println("signing service = " + ok + ", signed = " + hubRight.signingService.signed()
+                + " in " + hubRight.signingService.batches() + " batches");
+        hubRight.signingService.close();
     }
 }
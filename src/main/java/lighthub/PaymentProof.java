@@ -0,0 +1,105 @@
+package lighthub;
+
+import encryption.bulletproof.AggregatedRangeProof;
+import encryption.bulletproof.BulletproofGens;
+import encryption.bulletproof.PedersenCommitment;
+import encryption.bulletproof.Point;
+import encryption.bulletproof.Scalar;
+import encryption.bulletproof.Transcript;
+import global.Global;
+import org.aion.tetryon.G2Point;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 一次支付的正确性证明：一个 m = 2 的聚合 Bulletproof 同时证明
+ * <ul>
+ *   <li>余额 C - amt - g^{id‖state‖0} 打开为 [0, 2^VALUEBITS) 内的值；</li>
+ *   <li>支付金额承诺 amt 打开为 [0, 2^VALUEBITS) 内的值。</li>
+ * </ul>
+ * 余额承诺由 verifier 从通道承诺 C 推出，不随证明发送；C、前缀点与 amt 先写入
+ * transcript，证明因此绑定在这条通道的当前状态上，不能挪用到别的通道或状态。
+ */
+public class PaymentProof {
+
+    public static final int BITS = Global.VALUEBITS;
+    private static final int VALUES = 2;
+
+    public final AggregatedRangeProof proof;
+
+    public PaymentProof(AggregatedRangeProof proof) {
+        this.proof = proof;
+    }
+
+    private static BulletproofGens gens() {
+        return BulletproofGens.shared(BITS, VALUES);
+    }
+
+    /**
+     * @param remaining      支付后余额（C - amt - preValue 中 g 的指数）
+     * @param remainingBlind 余额的盲因子（通道盲因子 - 金额盲因子）
+     * @param amount         支付金额
+     * @param amountBlind    amt = amount·g + amountBlind·h 的盲因子
+     * @param channelC       通道当前承诺 C
+     * @param preValue       g^{id‖state‖0}，见 {@link UserHubChannel#getRealValuePoint()}
+     */
+    public static PaymentProof prove(long remaining, Scalar remainingBlind,
+                                     long amount, Scalar amountBlind,
+                                     Point channelC, Point preValue,
+                                     PedersenCommitment pc, Transcript ts) {
+        Point amt = pc.commit(Scalar.fromLong(amount), amountBlind);
+        bind(ts, channelC, preValue, amt);
+        return new PaymentProof(AggregatedRangeProof.prove(
+                new long[]{remaining, amount}, new Scalar[]{remainingBlind, amountBlind},
+                BITS, pc, gens(), ts));
+    }
+
+    /** hub 侧唯一的证明检查：余额与金额都在范围内，且与通道承诺一致 */
+    public boolean verify(Point channelC, Point preValue, Point amt,
+                          PedersenCommitment pc, Transcript ts) {
+        bind(ts, channelC, preValue, amt);
+        Point remaining = channelC.add(amt.neg()).add(preValue.neg());
+        return proof.verify(Arrays.asList(remaining, amt), BITS, pc, gens(), ts);
+    }
+
+    /**
+     * 从线上字节解码后验证；编码不合法按验证失败处理。Lᵢ / Rᵢ 在验证过程中才解码，
+     * 不在曲线上时同样抛 IllegalArgumentException，故验证也放在 try 内。
+     */
+    public static boolean verify(byte[] wire, Point channelC, Point preValue, Point amt,
+                                 PedersenCommitment pc, Transcript ts) {
+        try {
+            return fromBytes(wire).verify(channelC, preValue, amt, pc, ts);
+        } catch (IllegalArgumentException malformed) {
+            return false;
+        }
+    }
+
+    /**
+     * 一笔支付在 hub 侧的全部检查：通道认证 vfAuth 与支付证明。
+     *
+     * @param channel 付款方出示的通道承诺与签名
+     * @param X       hub 的签名公钥
+     */
+    public static boolean verifyPayment(RDBS rdbs, RDBS.AuthInfo channel, G2Point X,
+                                        Point preValue, Point amt, byte[] wire,
+                                        PedersenCommitment pc, Transcript ts) throws Exception {
+        return verify(wire, channel.cm.C, preValue, amt, pc, ts)
+                && rdbs.vfAuth(channel.cm, channel.sig, X);
+    }
+
+    private static void bind(Transcript ts, Point channelC, Point preValue, Point amt) {
+        ts.appendPoint("C", channelC);
+        ts.appendPoint("pre", preValue);
+        ts.appendPoint("amt", amt);
+    }
+
+    public byte[] toBytes() {
+        return proof.toBytes();
+    }
+
+    public static PaymentProof fromBytes(byte[] data) {
+        return new PaymentProof(AggregatedRangeProof.fromBytes(ByteBuffer.wrap(data)));
+    }
+}
@@ -0,0 +1,105 @@
+package lighthub;
+
+import encryption.bulletproof.Point;
+import encryption.bulletproof.Scalar;
+import org.aion.tetryon.G2;
+import org.aion.tetryon.G2Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * RDBS 签名的离线 / 在线拆分，绑定一个 {@link RDBS.KeyPair}。
+ * <p>
+ * 签名中与承诺无关的部分：s⁻¹、S = s·g、hatS = s·hatG、T = (x·s⁻¹)·h，
+ * 以及在线要用的 s⁻¹·g 与 x·s⁻¹，由后台线程预先生成放入有界池。
+ * 在线只剩 Z = s⁻¹·g + (x·s⁻¹)·C：一次标量乘加一次点加，G2 标量乘完全移出请求路径。
+ * 池空时当场生成一份，不阻塞调用方。
+ * <p>
+ * 每份只会被取出一次；同一 s 签两个不同承诺会泄露私钥 x。
+ */
+public final class PresignaturePool implements AutoCloseable {
+
+    /** 一份预签名；只能使用一次 */
+    static final class Presignature {
+        final Scalar sInv;
+        final Scalar xsInv;     // x·s⁻¹
+        final Point gSInv;      // s⁻¹·g
+        final Point S;
+        final Point T;
+        final G2Point hatS;
+
+        private Presignature(Scalar sInv, Scalar xsInv, Point gSInv, Point S, Point T, G2Point hatS) {
+            this.sInv = sInv;
+            this.xsInv = xsInv;
+            this.gSInv = gSInv;
+            this.S = S;
+            this.T = T;
+            this.hatS = hatS;
+        }
+    }
+
+    final RDBS rdbs;
+    final RDBS.KeyPair keyPair;
+    private final BlockingQueue<Presignature> ready;
+    private final List<Thread> workers;
+    private volatile boolean closed;
+
+    /**
+     * @param capacity 池容量
+     * @param threads  后台填充线程数
+     */
+    public PresignaturePool(RDBS rdbs, RDBS.KeyPair keyPair, int capacity, int threads) {
+        if (capacity <= 0 || threads <= 0)
+            throw new IllegalArgumentException("capacity and threads must be positive");
+        this.rdbs = rdbs;
+        this.keyPair = keyPair;
+        this.ready = new ArrayBlockingQueue<>(capacity);
+        this.workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread t = new Thread(this::fill, "rdbs-presign-" + i);
+            t.setDaemon(true);
+            workers.add(t);
+            t.start();
+        }
+    }
+
+    private void fill() {
+        try {
+            while (!closed) ready.put(create());
+        } catch (InterruptedException e) {
+            // close() 结束后台线程
+        }
+    }
+
+    private Presignature create() {
+        Scalar s = Scalar.random();
+        Scalar sInv = s.inv();
+        Scalar xsInv = keyPair.x.mul(sInv);
+        Point S = rdbs.g.mul(s);
+        G2Point hatS = G2.ECTwistMul(rdbs.hatG, s.toBigInt());
+        Point T = rdbs.h.mul(xsInv);
+        return new Presignature(sInv, xsInv, rdbs.g.mul(sInv), S, T, hatS);
+    }
+
+    /** 取出一份预签名，池空时当场生成 */
+    Presignature take() {
+        Presignature p = ready.poll();
+        return p != null ? p : create();
+    }
+
+    /** 当前池中可直接使用的份数 */
+    public int available() {
+        return ready.size();
+    }
+
+    /** 停止后台线程并丢弃池中尚未使用的预签名 */
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread t : workers) t.interrupt();
+        ready.clear();
+    }
+}
@@ -1,14 +1,33 @@
 package lighthub;
 
+import encryption.bulletproof.FixedBaseTable;
 import encryption.bulletproof.Point;
 import encryption.bulletproof.Scalar;
 import org.aion.tetryon.*;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.aion.tetryon.Pairing.pairing;
 
 public class RDBS {
+    private static final SecureRandom RNG = new SecureRandom();
+
     public final Point g;   // 基点 g
     public final Point h;   // 基点 h（与 g 离散对数未知）
 
@@ -57,6 +76,16 @@ public class RDBS {
             System.out.println("Auth check success!");
         }
 
+        // 三个等式并行验证，任一不成立即提前返回
+        Sig forged = new Sig(authInfo.sig.Z, authInfo.sig.S.add(g), authInfo.sig.T, authInfo.sig.hatS);
+        boolean parallelCheck = rdbs.vfAuthParallel(authInfo.cm, authInfo.sig, keyPair.X)
+                && !rdbs.vfAuthParallel(authInfo.cm, forged, keyPair.X);
+        if (!parallelCheck){
+            System.out.println("parallel Auth check error!");
+        }else {
+            System.out.println("parallel Auth check success!");
+        }
+
         Scalar r_ = Scalar.random();
         AuthInfo authInfo_ = rdbs.rdmAC(authInfo.cm, authInfo.sig, r_);
         boolean authCheck_ = rdbs.vfAuth(authInfo.cm, authInfo.sig, keyPair.X);
@@ -76,6 +105,55 @@ public class RDBS {
         }else {
             System.out.println("updated Auth check success!");
         }
+
+        // 批量验证：同一公钥下 8 个签名一次多配对；篡改其中两个后二分定位
+        List<CM> cms = new ArrayList<>();
+        List<Sig> sigs = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            AuthInfo ai = rdbs.authCom(Scalar.random(), keyPair.x, Scalar.random());
+            cms.add(ai.cm);
+            sigs.add(ai.sig);
+        }
+        boolean batchCheck = rdbs.vfAuthBatch(cms, sigs, keyPair.X);
+        Sig s2 = sigs.get(2);
+        Sig s5 = sigs.get(5);
+        sigs.set(2, new Sig(s2.Z.add(g), s2.S, s2.T, s2.hatS));
+        sigs.set(5, new Sig(s5.Z, s5.S, s5.T, hatG));
+        boolean batchReject = !rdbs.vfAuthBatch(cms, sigs, keyPair.X);
+        List<Integer> failures = rdbs.vfAuthFailures(cms, sigs, keyPair.X);
+        if (!batchCheck || !batchReject || !failures.equals(Arrays.asList(2, 5))){
+            System.out.println("batch Auth check error! failures = " + failures);
+        }else {
+            System.out.println("batch Auth check success!");
+        }
+
+        // 二进制编码：压缩 / 不压缩两种帧往返后仍可验证；改坏的 G1、G2 点在解码时被拒绝
+        byte[] wire = authInfo.toBytes();
+        byte[] raw = AuthInfoCodec.encode(authInfo, false);
+        AuthInfo decoded = AuthInfo.fromBytes(ByteBuffer.wrap(wire));
+        AuthInfo decodedRaw = AuthInfoCodec.decodeAuthInfo(ByteBuffer.wrap(raw));
+        boolean codecCheck = rdbs.vfAuth(decoded.cm, decoded.sig, keyPair.X)
+                && rdbs.vfAuth(decodedRaw.cm, decodedRaw.sig, keyPair.X)
+                && Arrays.equals(AuthInfoCodec.encode(decodedRaw, true), wire);
+        codecCheck &= rejectsFrame(raw, FrameCodec.HEADER_LEN + 63);      // 第一个 G1 点 y 的末字节
+        codecCheck &= rejectsFrame(raw, raw.length - 1);                  // hatS y 的末字节
+        if (!codecCheck){
+            System.out.println("codec check error!");
+        }else {
+            System.out.println("codec check success!");
+        }
+    }
+
+    /** 翻转 frame[pos] 的最低位后解码应抛出 IllegalArgumentException */
+    private static boolean rejectsFrame(byte[] frame, int pos) {
+        byte[] bad = frame.clone();
+        bad[pos] ^= 1;
+        try {
+            AuthInfoCodec.decodeAuthInfo(ByteBuffer.wrap(bad));
+            return false;
+        } catch (IllegalArgumentException expected) {
+            return true;
+        }
     }
 
 
@@ -87,10 +165,7 @@ public class RDBS {
     }
 
     public Point genPedCom(Scalar v, Scalar r){
-        Point vG = this.g.mul(v);
-        Point rH = this.h.mul(r);
-        Point C = vG.add(rH);
-        return C;
+        return Point.mul2(v, this.g, r, this.h);
     }
 
     public KeyPair keyGen(){
@@ -127,9 +202,7 @@ public class RDBS {
     public boolean vfCom(CM cm, Scalar v, Scalar r){
 
 
-        Point vG = this.g.mul(v);
-        Point rH = this.h.mul(r);
-        Point C = vG.add(rH);
+        Point C = Point.mul2(v, this.g, r, this.h);
 
         if (!cm.C.equals(C)){
             return false;
@@ -141,40 +214,257 @@ public class RDBS {
 
     public boolean vfAuth(CM cm, Sig sig, G2Point X) throws Exception {
 
-        G1Point[] e_l = new G1Point[]{sig.Z.neg().p, this.g.p, cm.C.p};
-        G2Point[] e_r = new G2Point[]{sig.hatS, this.hatG, X};
-        boolean result =  pairing(e_l, e_r);
+        boolean result = checkZ(cm, sig, X);
         if (!result){
             return false;
         }
 
-        e_l = new G1Point[]{this.g.neg().p, sig.S.p};
-        e_r = new G2Point[]{sig.hatS, this.hatG};
-        result =  pairing(e_l, e_r);
+        result = checkS(sig);
         if (!result){
             return false;
         }
 
-        e_l = new G1Point[]{sig.T.neg().p, this.h.p};
-        e_r = new G2Point[]{sig.hatS, X};
-        result =  pairing(e_l, e_r);
+        result = checkT(sig, X);
         if (!result){
             return false;
         }
         return true;
     }
 
+    /** e(Z, hatS) == e(g, hatG)·e(C, X) */
+    private boolean checkZ(CM cm, Sig sig, G2Point X) throws Exception {
+        G1Point[] e_l = new G1Point[]{sig.Z.neg().p, this.g.p, cm.C.p};
+        G2Point[] e_r = new G2Point[]{sig.hatS, this.hatG, X};
+        return pairing(e_l, e_r);
+    }
+
+    /** e(g, hatS) == e(S, hatG) */
+    private boolean checkS(Sig sig) throws Exception {
+        G1Point[] e_l = new G1Point[]{this.g.neg().p, sig.S.p};
+        G2Point[] e_r = new G2Point[]{sig.hatS, this.hatG};
+        return pairing(e_l, e_r);
+    }
+
+    /** e(T, hatS) == e(h, X) */
+    private boolean checkT(Sig sig, G2Point X) throws Exception {
+        G1Point[] e_l = new G1Point[]{sig.T.neg().p, this.h.p};
+        G2Point[] e_r = new G2Point[]{sig.hatS, X};
+        return pairing(e_l, e_r);
+    }
+
+    /** 校验公钥并预编码配对输入，见 {@link VerifyingKey}；公钥不合法时抛 IllegalArgumentException */
+    public VerifyingKey verifyingKey(G2Point X){
+        return new VerifyingKey(this, X);
+    }
+
+    /** 与 {@link #vfAuth(CM, Sig, G2Point)} 相同，G2 侧使用预编码的 X 与 hatG，hatS 只编码一次 */
+    public boolean vfAuth(CM cm, Sig sig, VerifyingKey key) throws Exception {
+        if (!key.matches(this))
+            throw new IllegalArgumentException("verifying key prepared for different parameters");
+        byte[] hatS = Util.serializeG2(sig.hatS);
+
+        boolean result = pairing(new G1Point[]{sig.Z.neg().p, this.g.p, cm.C.p},
+                new byte[][]{hatS, key.hatGEnc, key.xEnc});
+        if (!result){
+            return false;
+        }
+
+        result = pairing(new G1Point[]{key.negG, sig.S.p}, new byte[][]{hatS, key.hatGEnc});
+        if (!result){
+            return false;
+        }
+
+        return pairing(new G1Point[]{sig.T.neg().p, this.h.p}, new byte[][]{hatS, key.xEnc});
+    }
+
+    /** 共享的配对线程池：守护线程，线程数等于 CPU 核数，首次使用时创建 */
+    private static final class PairingExecutor {
+        private static final AtomicInteger COUNT = new AtomicInteger();
+        static final ExecutorService SHARED = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), r -> {
+                    Thread t = new Thread(r, "rdbs-pairing-" + COUNT.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * 与 {@link #vfAuth} 结果相同，三个配对等式在共享线程池上并发计算。
+     * 负载低、有空闲核时单笔验证延迟约等于一次配对检查。
+     */
+    public boolean vfAuthParallel(CM cm, Sig sig, G2Point X) throws Exception {
+        return vfAuthParallel(cm, sig, X, PairingExecutor.SHARED);
+    }
+
+    /**
+     * 三个配对等式提交到 executor，按完成顺序取结果；
+     * 任一等式不成立立即返回 false 并取消其余尚未完成的检查。
+     */
+    public boolean vfAuthParallel(CM cm, Sig sig, G2Point X, ExecutorService executor) throws Exception {
+        List<Callable<Boolean>> checks = new ArrayList<>(3);
+        checks.add(() -> checkZ(cm, sig, X));
+        checks.add(() -> checkS(sig));
+        checks.add(() -> checkT(sig, X));
+
+        CompletionService<Boolean> done = new ExecutorCompletionService<>(executor);
+        List<Future<Boolean>> futures = new ArrayList<>(checks.size());
+        try {
+            for (Callable<Boolean> c : checks) futures.add(done.submit(c));
+            for (int i = 0; i < checks.size(); i++) {
+                if (!done.take().get()) return false;
+            }
+            return true;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            throw e;
+        } finally {
+            for (Future<Boolean> f : futures) f.cancel(true);
+        }
+    }
+
+    /**
+     * 批量验证同一公钥 X 下的多个认证承诺。第 i 个签名的三个等式分别乘以随机指数 aᵢ、bᵢ、cᵢ 后相乘：
+     * <pre>
+     *   Π e(-aᵢ·Zᵢ - bᵢ·g - cᵢ·Tᵢ, hatSᵢ) · e(Σ aᵢ·g + bᵢ·Sᵢ, hatG) · e(Σ aᵢ·Cᵢ + cᵢ·h, X) == 1
+     * </pre>
+     * hatG、X 各只配对一次，hatS 相同的签名合并为一项，共 2 + (不同 hatS 个数) 个配对。
+     * <p>
+     * 随机指数只有 128 位，只在所有 G2 输入都属于 r 阶子群时才可靠：扭曲线有小阶余因子分量，
+     * 子群外的 hatS 可让伪造项在小阶部分上相互抵消。因此先对 X 与每个不同的 hatS 做
+     * {@link G2#isInSubgroupPsi} 检查（每组一次），不通过直接返回 false；
+     * 之后任一签名无效时除 2⁻¹²⁸ 的概率外返回 false，可用 {@link #vfAuthFailures} 定位。
+     */
+    public boolean vfAuthBatch(List<CM> cms, List<Sig> sigs, G2Point X) throws Exception {
+        if (cms.size() != sigs.size()) throw new IllegalArgumentException("len mismatch");
+        int n = cms.size();
+        if (n == 0) return true;
+        if (n == 1) return vfAuth(cms.get(0), sigs.get(0), X);
+        if (!G2.isInSubgroupPsi(X)) return false;
+
+        Map<G2Point, List<Integer>> byHatS = groupByHatS(sigs);
+        for (G2Point hatS : byHatS.keySet())
+            if (!G2.isInSubgroupPsi(hatS)) return false;
+        return batchCheck(cms, sigs, X, byHatS);
+    }
+
+    /** 按 hatS 分组，保持首次出现的顺序 */
+    private static Map<G2Point, List<Integer>> groupByHatS(List<Sig> sigs) {
+        Map<G2Point, List<Integer>> byHatS = new LinkedHashMap<>();
+        for (int i = 0; i < sigs.size(); i++)
+            byHatS.computeIfAbsent(sigs.get(i).hatS, k -> new ArrayList<>()).add(i);
+        return byHatS;
+    }
+
+    /** 合并后的多配对；调用方已确认 X 与全部 hatS 在子群内 */
+    private boolean batchCheck(List<CM> cms, List<Sig> sigs, G2Point X, Map<G2Point, List<Integer>> byHatS) throws Exception {
+        int n = cms.size();
+        if (n == 1) return vfAuth(cms.get(0), sigs.get(0), X);
+
+        Scalar[] a = new Scalar[n], b = new Scalar[n], c = new Scalar[n];
+        List<Point> gPts = new ArrayList<>(n + 1), xPts = new ArrayList<>(n + 1);
+        List<Scalar> gSc = new ArrayList<>(n + 1), xSc = new ArrayList<>(n + 1);
+        Scalar sumA = Scalar.zero(), sumC = Scalar.zero();
+        for (int i = 0; i < n; i++) {
+            a[i] = randomExponent(); b[i] = randomExponent(); c[i] = randomExponent();
+            sumA = sumA.add(a[i]);
+            sumC = sumC.add(c[i]);
+            gPts.add(sigs.get(i).S); gSc.add(b[i]);
+            xPts.add(cms.get(i).C);  xSc.add(a[i]);
+        }
+        gPts.add(this.g); gSc.add(sumA);
+        xPts.add(this.h); xSc.add(sumC);
+
+        G1Point[] e_l = new G1Point[byHatS.size() + 2];
+        G2Point[] e_r = new G2Point[byHatS.size() + 2];
+        int k = 0;
+        for (Map.Entry<G2Point, List<Integer>> group : byHatS.entrySet()) {
+            List<Point> pts = new ArrayList<>();
+            List<Scalar> sc = new ArrayList<>();
+            Scalar sumB = Scalar.zero();
+            for (int i : group.getValue()) {
+                pts.add(sigs.get(i).Z); sc.add(a[i].neg());
+                pts.add(sigs.get(i).T); sc.add(c[i].neg());
+                sumB = sumB.add(b[i]);
+            }
+            pts.add(this.g); sc.add(sumB.neg());
+            e_l[k] = Point.msm(pts, sc).p;
+            e_r[k++] = group.getKey();
+        }
+        e_l[k] = Point.msm(gPts, gSc).p;
+        e_r[k++] = this.hatG;
+        e_l[k] = Point.msm(xPts, xSc).p;
+        e_r[k] = X;
+        return pairing(e_l, e_r);
+    }
+
+    /**
+     * 找出批量中无效的签名下标：hatS 不在子群内的直接列出（每个不同的 hatS 只查一次），
+     * 其余整批通过即结束，否则二分递归，t 个坏签名约需 O(t·log n) 次批量验证。
+     *
+     * @throws IllegalArgumentException X 不是合法的 G2 子群点
+     */
+    public List<Integer> vfAuthFailures(List<CM> cms, List<Sig> sigs, G2Point X) throws Exception {
+        if (cms.size() != sigs.size()) throw new IllegalArgumentException("len mismatch");
+        if (!G2.isInSubgroupPsi(X)) throw new IllegalArgumentException("public key not in G2");
+        List<Integer> bad = new ArrayList<>();
+        List<Integer> rest = new ArrayList<>(cms.size());
+        for (Map.Entry<G2Point, List<Integer>> group : groupByHatS(sigs).entrySet()) {
+            if (G2.isInSubgroupPsi(group.getKey())) rest.addAll(group.getValue());
+            else bad.addAll(group.getValue());
+        }
+        Collections.sort(rest);
+        List<CM> restCms = new ArrayList<>(rest.size());
+        List<Sig> restSigs = new ArrayList<>(rest.size());
+        for (int i : rest) {
+            restCms.add(cms.get(i));
+            restSigs.add(sigs.get(i));
+        }
+        List<Integer> badSigs = new ArrayList<>();
+        bisect(restCms, restSigs, X, 0, rest.size(), badSigs);
+        for (int j : badSigs) bad.add(rest.get(j));
+        Collections.sort(bad);
+        return bad.isEmpty() ? Collections.emptyList() : bad;
+    }
+
+    private void bisect(List<CM> cms, List<Sig> sigs, G2Point X, int from, int to, List<Integer> bad) throws Exception {
+        if (from >= to) return;
+        List<Sig> part = sigs.subList(from, to);
+        if (batchCheck(cms.subList(from, to), part, X, groupByHatS(part))) return;
+        if (to - from == 1) {
+            bad.add(from);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        bisect(cms, sigs, X, from, mid, bad);
+        bisect(cms, sigs, X, mid, to, bad);
+    }
+
+    /** 128 位随机指数 */
+    private static Scalar randomExponent() {
+        return new Scalar(new BigInteger(128, RNG));
+    }
+
+    /**
+     * C' = C + r·h，Z' = s⁻¹·(Z + r·T) = s⁻¹·Z + (r·s⁻¹)·T，S' = s·S，T' = s⁻¹·T，hatS' = s·hatS。
+     * <p>
+     * Z' 一次双标量乘，代替 r·T、点加、再乘 s⁻¹ 两次全长标量乘；r·h 查 h 的固定基点表，
+     * 在 Jacobian 坐标下与 C 相加后只归一化一次；hatS' 用 GLS 分解的 {@link G2#mulGLS}。
+     * mulGLS 只对 G2 子群内的点成立，而 hatS 来自线上，故先做 {@link G2#isInSubgroupPsi}
+     * 检查，不通过时退回逐位的 {@link G2#ECTwistMul}，结果与原实现一致（其后 vfAuth 照常失败）。
+     */
     public AuthInfo rdmAC(CM cm, Sig sig, Scalar r){
         Scalar s = Scalar.random();
         Scalar sInv = s.inv();
 
-        Point C = cm.C.add(this.h.mul(r));
-        CM cm_ = new CM(C);
+        G1Point C = G1.jacobianAddMixed(FixedBaseTable.of(this.h).mulJacobian(r.toBigInt()), cm.C.p).toAffine();
+        CM cm_ = new CM(toPoint(C));
 
-        Point rT = sig.T.mul(r);
-        Point Z = sig.Z.add(rT).mul(sInv);
+        Point Z = Point.mul2(sInv, sig.Z, r.mul(sInv), sig.T);
         Point S = sig.S.mul(s);
-        G2Point hatS = G2.ECTwistMul(sig.hatS, s.toBigInt());
+        G2Point hatS = G2.isInSubgroupPsi(sig.hatS)
+                ? G2.mulGLS(sig.hatS, s.toBigInt())
+                : G2.ECTwistMul(sig.hatS, s.toBigInt());
         Point T = sig.T.mul(sInv);
         Sig sig_ = new Sig(Z, S, T, hatS);
         return new AuthInfo(cm_, sig_);
@@ -198,6 +488,101 @@ public class RDBS {
         return  new AuthInfo(cm, sig);
     }
 
+    /** 为签名密钥预计算 x·h 及其查表，签名时不再重算，见 {@link PreparedSigningKey} */
+    public PreparedSigningKey prepare(KeyPair keyPair){
+        return new PreparedSigningKey(this, keyPair);
+    }
+
+    /** 使用预计算密钥的 authCom：Z 一次双标量乘，S、T 查表 */
+    public AuthInfo authCom(Scalar v, Scalar r, PreparedSigningKey key){
+        CM cm = new CM(genPedCom(v, r));
+        return new AuthInfo(cm, sign(cm.C, key));
+    }
+
+    /** 使用预计算密钥的 updAC */
+    public AuthInfo updAC(CM cm, PreparedSigningKey key){
+        return new AuthInfo(cm, sign(cm.C, key));
+    }
+
+    /** Z = (g + x·C)·s⁻¹ = s⁻¹·g + (x·s⁻¹)·C，T = s⁻¹·(x·h) */
+    private Sig sign(Point C, PreparedSigningKey key){
+        if (!key.h.equals(this.h))
+            throw new IllegalArgumentException("signing key prepared for different parameters");
+        Scalar s = Scalar.random();
+        Scalar sInv = s.inv();
+        Point Z = Point.mul2(sInv, this.g, key.keyPair.x.mul(sInv), C);
+        Point S = FixedBaseTable.of(this.g).mul(s);
+        G2Point hatS = G2.ECTwistMul(this.hatG, s.toBigInt());
+        Point T = key.xHTable.mul(sInv);
+        return new Sig(Z, S, T, hatS);
+    }
+
+    /**
+     * 一批承诺用同一把预计算密钥签名：n 个 sᵢ 一次批量求逆，hatSᵢ 查 hatG 的 G2 表并一次归一化，
+     * Zᵢ、Sᵢ、Tᵢ 共 3n 个 G1 点在 Jacobian 坐标下算完后一次批量归一化。
+     *
+     * @return 与 cms 一一对应的签名
+     */
+    public List<Sig> signBatch(List<CM> cms, PreparedSigningKey key){
+        if (!key.h.equals(this.h))
+            throw new IllegalArgumentException("signing key prepared for different parameters");
+        int n = cms.size();
+        if (n == 0) return new ArrayList<>(0);
+
+        List<Scalar> s = Scalar.randomVector(n);
+        List<Scalar> sInv = Scalar.inverseVector(s);
+        BigInteger[] sBig = new BigInteger[n];
+        for (int i = 0; i < n; i++) sBig[i] = s.get(i).toBigInt();
+        G2Point[] hatS = hatGTable().mulAll(sBig);
+
+        FixedBaseTable gTable = FixedBaseTable.of(this.g);
+        G1.JacobianPoint[] jac = new G1.JacobianPoint[3 * n];
+        for (int i = 0; i < n; i++) {
+            BigInteger si = sInv.get(i).toBigInt();
+            jac[3 * i] = G1.jacobianMul2(this.g.p, si, cms.get(i).C.p, key.keyPair.x.mul(sInv.get(i)).toBigInt());
+            jac[3 * i + 1] = gTable.mulJacobian(sBig[i]);
+            jac[3 * i + 2] = key.xHTable.mulJacobian(si);
+        }
+        G1Point[] aff = G1.batchToAffine(jac);
+
+        List<Sig> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            out.add(new Sig(toPoint(aff[3 * i]), toPoint(aff[3 * i + 1]), toPoint(aff[3 * i + 2]), hatS[i]));
+        return out;
+    }
+
+    private static Point toPoint(G1Point p) {
+        return p.isZero() ? Point.INF : new Point(p);
+    }
+
+    /** hatG 的 G2 固定基点表，首次批量签名时建立 */
+    private volatile G2FixedBaseTable hatGTable;
+
+    private G2FixedBaseTable hatGTable() {
+        G2FixedBaseTable t = hatGTable;
+        if (t == null) hatGTable = t = new G2FixedBaseTable(this.hatG);
+        return t;
+    }
+
+    /** 消耗一份预签名的 authCom：在线只剩承诺与 Z 的一次标量乘 */
+    public AuthInfo authCom(Scalar v, Scalar r, PresignaturePool pool){
+        CM cm = new CM(genPedCom(v, r));
+        return new AuthInfo(cm, sign(cm.C, pool));
+    }
+
+    /** 消耗一份预签名的 updAC：Z = s⁻¹·g + (x·s⁻¹)·C */
+    public AuthInfo updAC(CM cm, PresignaturePool pool){
+        return new AuthInfo(cm, sign(cm.C, pool));
+    }
+
+    private Sig sign(Point C, PresignaturePool pool){
+        if (pool.rdbs != this && !(pool.rdbs.g.equals(g) && pool.rdbs.h.equals(h) && pool.rdbs.hatG.equals(hatG)))
+            throw new IllegalArgumentException("presignature pool belongs to different parameters");
+        PresignaturePool.Presignature pre = pool.take();
+        Point Z = pre.gSInv.add(C.mul(pre.xsInv));
+        return new Sig(Z, pre.S, pre.T, pre.hatS);
+    }
+
     public boolean vfUpd(CM cm, Point amt, CM cm_, Sig sig, G2Point X) throws Exception {
 
 
@@ -228,6 +613,15 @@ public class RDBS {
             this.sig = new Sig(other.sig.Z, other.sig.S, other.sig.T, other.sig.hatS );
         }
 
+        /** 压缩点的二进制编码，见 {@link AuthInfoCodec} */
+        public byte[] toBytes(){
+            return AuthInfoCodec.encode(this, true);
+        }
+
+        public static AuthInfo fromBytes(ByteBuffer buf){
+            return AuthInfoCodec.decodeAuthInfo(buf);
+        }
+
         @Override
         public String toString(){
             return cm.C.toString()
@@ -248,6 +642,60 @@ public class RDBS {
         }
     }
 
+    /**
+     * 签名密钥及只依赖密钥的预计算量：x·h 与它的固定基点表。
+     * 每次签名的 T = s⁻¹·(x·h) 由此查表得到，不再做 h·x 与随后的变基点标量乘。
+     */
+    public static class PreparedSigningKey{
+        public final KeyPair keyPair;
+        public final Point xH;
+        final Point h;
+        final FixedBaseTable xHTable;
+
+        PreparedSigningKey(RDBS rdbs, KeyPair keyPair) {
+            this.keyPair = keyPair;
+            this.h = rdbs.h;
+            this.xH = rdbs.h.mul(keyPair.x);
+            this.xHTable = new FixedBaseTable(xH);
+        }
+
+        /** 是否可用于给定参数下的签名 */
+        public boolean matches(RDBS rdbs, KeyPair keyPair) {
+            return this.keyPair == keyPair && h.equals(rdbs.h);
+        }
+    }
+
+    /**
+     * 一个 hub 公钥的验证上下文：X 在建立时做一次曲线与子群检查，
+     * X、hatG 的配对编码和 -g 预先算好，每次 vfAuth 只需编码签名里的点。
+     */
+    public static class VerifyingKey{
+        public final G2Point X;
+        final G2Point hatG;
+        final Point g;
+        final Point h;
+        final byte[] xEnc;
+        final byte[] hatGEnc;
+        final G1Point negG;
+
+        VerifyingKey(RDBS rdbs, G2Point X) {
+            if (!G2.isInSubgroup(X))
+                throw new IllegalArgumentException("public key is not a valid G2 point");
+            this.X = X;
+            this.hatG = rdbs.hatG;
+            this.g = rdbs.g;
+            this.h = rdbs.h;
+            this.xEnc = Util.serializeG2(X);
+            this.hatGEnc = Util.serializeG2(rdbs.hatG);
+            this.negG = rdbs.g.neg().p;
+        }
+
+        /** 是否为给定参数下建立的上下文 */
+        public boolean matches(RDBS rdbs) {
+            return hatG.equals(rdbs.hatG) && g.equals(rdbs.g) && h.equals(rdbs.h);
+        }
+    }
+
     public static class CM{
         public Point C;
 
@@ -0,0 +1,138 @@
+package lighthub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * hub 侧的 updAC 签名服务，绑定一把 {@link RDBS.PreparedSigningKey}。
+ * <p>
+ * 各通道并发提交待签承诺，后台线程把它们合成微批：取到第一个请求后最多再等 maxDelayMicros，
+ * 凑够 maxBatch 个或超时即调用 {@link RDBS#signBatch}，批内共享 s 的批量求逆、
+ * hatS 的 G2 查表与一次归一化、G1 点的一次批量归一化，然后逐个完成请求的 future。
+ * 负载高时批越满，摊到每个签名上的求逆与归一化越少。
+ */
+public final class RdbsSigningService implements AutoCloseable {
+
+    private static final class Request {
+        final RDBS.CM cm;
+        final CompletableFuture<RDBS.AuthInfo> result = new CompletableFuture<>();
+
+        Request(RDBS.CM cm) {
+            this.cm = cm;
+        }
+    }
+
+    final RDBS rdbs;
+    final RDBS.PreparedSigningKey key;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Request> pending = new LinkedBlockingQueue<>();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    private final AtomicLong signed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    /**
+     * @param maxBatch       每批最多签名数
+     * @param maxDelayMicros 凑批最长等待时间（微秒），0 表示只取已排队的请求
+     */
+    public RdbsSigningService(RDBS rdbs, RDBS.PreparedSigningKey key, int maxBatch, long maxDelayMicros) {
+        if (maxBatch <= 0 || maxDelayMicros < 0)
+            throw new IllegalArgumentException("maxBatch must be positive and maxDelayMicros non-negative");
+        this.rdbs = rdbs;
+        this.key = key;
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxDelayMicros);
+        this.worker = new Thread(this::run, "rdbs-signing");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** 提交一个待签承诺，签名完成后 future 返回新的认证信息 */
+    public CompletableFuture<RDBS.AuthInfo> submit(RDBS.CM cm) {
+        if (closed) throw new IllegalStateException("signing service closed");
+        Request r = new Request(cm);
+        pending.add(r);
+        if (closed && pending.remove(r)) r.result.completeExceptionally(new IllegalStateException("signing service closed"));
+        return r.result;
+    }
+
+    /** 同步版本：提交并等待，供通道的 sendValue / receiveValue 直接调用 */
+    public RDBS.AuthInfo updAC(RDBS.CM cm) {
+        try {
+            return submit(cm).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for signature", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private void run() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        try {
+            while (!closed) {
+                batch.add(pending.take());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    if (pending.drainTo(batch, maxBatch - batch.size()) > 0) continue;
+                    long wait = deadline - System.nanoTime();
+                    if (wait <= 0) break;
+                    Request r = pending.poll(wait, TimeUnit.NANOSECONDS);
+                    if (r == null) break;
+                    batch.add(r);
+                }
+                sign(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // close() 结束后台线程
+        } finally {
+            IllegalStateException ex = new IllegalStateException("signing service closed");
+            for (Request r : batch) r.result.completeExceptionally(ex);
+            Request r;
+            while ((r = pending.poll()) != null) r.result.completeExceptionally(ex);
+        }
+    }
+
+    private void sign(List<Request> batch) {
+        List<RDBS.CM> cms = new ArrayList<>(batch.size());
+        for (Request r : batch) cms.add(r.cm);
+        try {
+            List<RDBS.Sig> sigs = rdbs.signBatch(cms, key);
+            for (int i = 0; i < batch.size(); i++)
+                batch.get(i).result.complete(new RDBS.AuthInfo(cms.get(i), sigs.get(i)));
+            signed.addAndGet(batch.size());
+            batches.incrementAndGet();
+        } catch (RuntimeException e) {
+            for (Request r : batch) r.result.completeExceptionally(e);
+        }
+    }
+
+    /** 已完成的签名数 */
+    public long signed() {
+        return signed.get();
+    }
+
+    /** 已处理的批数；signed() / batches() 即平均批大小 */
+    public long batches() {
+        return batches.get();
+    }
+
+    /** 停止后台线程，尚未签名的请求以 IllegalStateException 失败 */
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+    }
+}
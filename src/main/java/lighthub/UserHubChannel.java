@@ -42,7 +42,7 @@ public class UserHubChannel {
 
         BigInteger shiftResult = concatThree(this.id, this.state, user.value.toBigInt());
         this.value = new Scalar(shiftResult);
-        RDBS.AuthInfo authInfo = rdbs.authCom(this.value, hub.keyPair.x, r);
+        RDBS.AuthInfo authInfo = hub.authCom(rdbs, this.value, r);
         this.authInfo = authInfo;
         return authInfo;
     }
@@ -125,7 +125,7 @@ public class UserHubChannel {
     public RDBS.AuthInfo sendValue(Point amt){
         this.preAuthInfo = new RDBS.AuthInfo(this.authInfo) ;
         this.authInfo.cm.C = this.authInfo.cm.C.add(amt.neg()).add(this.statePoint); // state add 1
-        this.authInfo = rdbs.updAC(this.authInfo.cm, this.hub.keyPair.x);
+        this.authInfo = hub.updAC(rdbs, this.authInfo.cm);
         return authInfo;
     }
 
@@ -143,7 +143,7 @@ public class UserHubChannel {
     public RDBS.AuthInfo receiveValue(Point amt){
         this.preAuthInfo = new RDBS.AuthInfo(this.authInfo) ;
         this.authInfo.cm.C = this.authInfo.cm.C.add(amt);
-        this.authInfo = rdbs.updAC(this.authInfo.cm, this.hub.keyPair.x);
+        this.authInfo = hub.updAC(rdbs, this.authInfo.cm);
         return authInfo;
     }
 
@@ -0,0 +1,216 @@
+package lighthub;
+
+import encryption.bulletproof.PedersenCommitment;
+import encryption.bulletproof.Point;
+import encryption.bulletproof.RangeProofProfile;
+import encryption.bulletproof.Transcript;
+import org.aion.tetryon.G2Point;
+import org.aion.tetryon.Util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * hub 侧验证结果缓存：用户超时重发同一支付消息时，直接按摘要查表，不再重跑
+ * RangeProof.verify / vfAuth / {@link PaymentProof#verifyPayment}。
+ * <p>
+ * 键为 SHA-256(类型标签 ‖ 全部输入)，范围证明含 (承诺, 证明字节, transcript 域, pc.g, pc.h)，
+ * 向量生成器取自固定推导的 {@link encryption.bulletproof.BulletproofGens#shared}，不可配置，故不入键；
+ * vfAuth 含 (C, Z, S, T, hatS, X, g, h, hatG)；支付检查为两者之并再加 (前缀点, amt)。验证是输入的确定性函数，
+ * 成功与失败结果都缓存。容量按条目数限制：按摘要分段，每段一个按访问顺序
+ * 淘汰最久未用条目的 LinkedHashMap，段内加锁，段间互不阻塞。
+ */
+public class VerificationCache {
+
+    private static final byte[] TAG_RANGE = "range".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TAG_AUTH = "vfAuth".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TAG_PAYMENT = "payment".getBytes(StandardCharsets.US_ASCII);
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /** @param capacity 最多缓存的结果条数（各段均分，至少每段 1 条） */
+    public VerificationCache(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        int perSegment = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) segments[i] = new Segment(perSegment);
+    }
+
+    /**
+     * 带缓存的 {@link RangeProofProfile#verify(ByteBuffer, Point, PedersenCommitment, Transcript)}。
+     * 编码不合法按验证失败处理，同样缓存。
+     *
+     * @param proof  线上收到的证明字节
+     * @param domain 双方约定的 transcript 域分隔符
+     */
+    public boolean verifyRange(byte[] proof, Point commitment, byte[] domain, PedersenCommitment pc) {
+        MessageDigest md = digest(TAG_RANGE);
+        update(md, commitment.toBytes());
+        update(md, proof);
+        update(md, domain);
+        update(md, pc.g.toBytes());
+        update(md, pc.h.toBytes());
+        Key key = new Key(md.digest());
+
+        Boolean cached = lookup(key);
+        if (cached != null) return cached;
+        boolean ok;
+        try {
+            ok = RangeProofProfile.verify(ByteBuffer.wrap(proof), commitment, pc, new Transcript(domain));
+        } catch (IllegalArgumentException malformed) {
+            ok = false;
+        }
+        store(key, ok);
+        return ok;
+    }
+
+    /** 带缓存的 {@link RDBS#vfAuth} */
+    public boolean vfAuth(RDBS rdbs, RDBS.CM cm, RDBS.Sig sig, G2Point X) throws Exception {
+        MessageDigest md = digest(TAG_AUTH);
+        updateAuth(md, rdbs, cm, sig, X);
+        Key key = new Key(md.digest());
+
+        Boolean cached = lookup(key);
+        if (cached != null) return cached;
+        boolean ok = rdbs.vfAuth(cm, sig, X);
+        store(key, ok);
+        return ok;
+    }
+
+    /**
+     * 带缓存的 {@link PaymentProof#verifyPayment}：付款方通道在 hub 侧的全部检查。
+     *
+     * @param wire   线上收到的支付证明字节
+     * @param domain 双方约定的 transcript 域分隔符
+     */
+    public boolean verifyPayment(RDBS rdbs, RDBS.AuthInfo channel, G2Point X, Point preValue, Point amt,
+                                 byte[] wire, byte[] domain, PedersenCommitment pc) throws Exception {
+        MessageDigest md = digest(TAG_PAYMENT);
+        updateAuth(md, rdbs, channel.cm, channel.sig, X);
+        update(md, preValue.toBytes());
+        update(md, amt.toBytes());
+        update(md, wire);
+        update(md, domain);
+        update(md, pc.g.toBytes());
+        update(md, pc.h.toBytes());
+        Key key = new Key(md.digest());
+
+        Boolean cached = lookup(key);
+        if (cached != null) return cached;
+        boolean ok = PaymentProof.verifyPayment(rdbs, channel, X, preValue, amt, wire, pc, new Transcript(domain));
+        store(key, ok);
+        return ok;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        int n = 0;
+        for (Segment s : segments) {
+            synchronized (s) {
+                n += s.size();
+            }
+        }
+        return n;
+    }
+
+    private Boolean lookup(Key key) {
+        Segment s = segmentFor(key);
+        Boolean v;
+        synchronized (s) {
+            v = s.get(key);
+        }
+        if (v != null) hits.increment();
+        else misses.increment();
+        return v;
+    }
+
+    private void store(Key key, boolean ok) {
+        Segment s = segmentFor(key);
+        synchronized (s) {
+            s.put(key, ok);
+        }
+    }
+
+    private Segment segmentFor(Key key) {
+        return segments[key.digest[0] & (SEGMENTS - 1)];
+    }
+
+    private static void updateAuth(MessageDigest md, RDBS rdbs, RDBS.CM cm, RDBS.Sig sig, G2Point X) {
+        update(md, cm.C.toBytes());
+        update(md, sig.Z.toBytes());
+        update(md, sig.S.toBytes());
+        update(md, sig.T.toBytes());
+        update(md, Util.serializeG2(sig.hatS));
+        update(md, Util.serializeG2(X));
+        update(md, rdbs.g.toBytes());
+        update(md, rdbs.h.toBytes());
+        update(md, Util.serializeG2(rdbs.hatG));
+    }
+
+    /** 各字段带长度前缀，避免拼接歧义 */
+    private static void update(MessageDigest md, byte[] field) {
+        md.update(ByteBuffer.allocate(4).putInt(field.length).array());
+        md.update(field);
+    }
+
+    private static MessageDigest digest(byte[] tag) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            update(md, tag);
+            return md;
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<Key, Boolean> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private static final class Key {
+        final byte[] digest;
+        final int hash;
+
+        Key(byte[] digest) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(digest, ((Key) o).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -76,6 +76,42 @@ public class AltBn128 {
         return Holder.INSTANCE.g1EcMul(point, sdata_aligned);
     }
 
+    /**
+     * Computes s1*p1 + s2*p2 in G1 with one shared doubling chain, consuming both scalars in fixed
+     * 4-bit windows over per-point tables of 0..15 multiples.
+     * <p>
+     * We do buffer size validation here (not done in JNI wrapper).
+     * <p>
+     * Failure Mode: Any illegal points as input yields an Exception with message "NotOnCurve"; a
+     * scalar not below the group order yields an Exception as well.
+     * Libraries built before this entry point throw UnsatisfiedLinkError.
+     *
+     * @param point1  point in G1, encoded like so: [p.x || p.y]. Each coordinate is 32-byte aligned.
+     * @param scalar1 natural number (>= 0) multiplying point1.
+     * @param point2  point in G1, encoded like so: [p.x || p.y]. Each coordinate is 32-byte aligned.
+     * @param scalar2 natural number (>= 0) multiplying point2.
+     */
+    public static byte[] g1EcMul2(byte[] point1, BigInteger scalar1, byte[] point2, BigInteger scalar2) throws Exception {
+        // assert valid data.
+        // todo: convert assert to runtime assertion in AVM
+        assert (point1 != null && point2 != null && scalar1 != null && scalar2 != null &&
+                point1.length == G1_POINT_SIZE && point2.length == G1_POINT_SIZE &&
+                scalar1.signum() != -1 && scalar2.signum() != -1);
+
+        // call jni
+        return Holder.INSTANCE.g1EcMul2(point1, align(scalar1), point2, align(scalar2));
+    }
+
+    private static byte[] align(BigInteger scalar) {
+        byte[] sdata = scalar.toByteArray();
+        assert (sdata.length <= WORD_SIZE + 1);
+        int len = Math.min(sdata.length, WORD_SIZE);
+
+        byte[] sdata_aligned = new byte[WORD_SIZE];
+        System.arraycopy(sdata, sdata.length - len, sdata_aligned, WORD_SIZE - len, len);
+        return sdata_aligned;
+    }
+
     /**
      * The Pairing itself is a transformation of the form G1 x G2 -> Gt, <br/>
      * where Gt is a subgroup of roots of unity in Fp12 field<br/>
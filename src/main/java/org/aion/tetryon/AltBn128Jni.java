@@ -8,6 +8,8 @@ public class AltBn128Jni {
 
     public native byte[] g1EcMul(byte[] point, byte[] scalar) throws Exception;
 
+    public native byte[] g1EcMul2(byte[] point1, byte[] scalar1, byte[] point2, byte[] scalar2) throws Exception;
+
     public native boolean ecPair(byte[] g1_point_list, byte[] g2_point_list) throws Exception;
 
     public native int ping();
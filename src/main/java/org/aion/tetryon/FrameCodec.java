@@ -0,0 +1,135 @@
+package org.aion.tetryon;
+
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * Framing shared by the fixed-size point-message codecs (the RDBS and RSUC auth-info codecs).
+ * <p>
+ * A frame is a 3-byte header followed by a body of G1 and G2 points:
+ * <pre>
+ *   version:1B | type:1B | flags:1B      flags bit 0 = points are compressed
+ * </pre>
+ * Each scheme defines its own version, type numbers and field order. This class writes and checks
+ * the header, sizes frames from their point counts, and reads and writes the body's points (see
+ * {@link PointCodec}) through a {@link Writer} / {@link Reader}, so a scheme's codec only lists its
+ * fields in order.
+ */
+public final class FrameCodec {
+
+    public static final int HEADER_LEN = 3;
+    private static final int FLAG_COMPRESSED = 1;
+
+    private FrameCodec() {}
+
+    /**
+     * @param g1Points number of G1 points in the body
+     * @param g2Points number of G2 points in the body
+     * @return the frame length, header included
+     */
+    public static int size(boolean compressed, int g1Points, int g2Points) {
+        return HEADER_LEN + g1Points * PointCodec.g1Size(compressed) + g2Points * PointCodec.g2Size(compressed);
+    }
+
+    private static void putHeader(ByteBuffer out, byte version, byte type, boolean compressed) {
+        out.put(version).put(type).put((byte) (compressed ? FLAG_COMPRESSED : 0));
+    }
+
+    /**
+     * Reads and checks a header, advancing past it.
+     *
+     * @return whether the body's points are compressed
+     * @throws IllegalArgumentException if the header is truncated or has the wrong version, type or flags
+     */
+    private static boolean readHeader(ByteBuffer in, byte version, byte type) {
+        if (in.remaining() < HEADER_LEN) throw new IllegalArgumentException("truncated header");
+        byte v = in.get();
+        if (v != version) throw new IllegalArgumentException("unsupported version " + v);
+        byte t = in.get();
+        if (t != type) throw new IllegalArgumentException("expected type " + type + ", got " + t);
+        int flags = in.get() & 0xff;
+        if ((flags & ~FLAG_COMPRESSED) != 0) throw new IllegalArgumentException("unknown flags " + flags);
+        return flags == FLAG_COMPRESSED;
+    }
+
+    /**
+     * Whether in holds a whole frame with the given point counts, judged from the flags byte
+     * without moving the position. Header errors are left to {@link #reader}.
+     */
+    public static boolean hasFrame(ByteBuffer in, int g1Points, int g2Points) {
+        if (in.remaining() < HEADER_LEN) return false;
+        boolean compressed = (in.get(in.position() + 2) & FLAG_COMPRESSED) != 0;
+        return in.remaining() >= size(compressed, g1Points, g2Points);
+    }
+
+    /**
+     * Streaming decode: returns null, leaving the position unchanged, while in holds less than a
+     * whole frame with the given point counts; otherwise decodes one frame with decode.
+     */
+    public static <T> T tryDecode(ByteBuffer in, int g1Points, int g2Points, Function<ByteBuffer, T> decode) {
+        return hasFrame(in, g1Points, g2Points) ? decode.apply(in) : null;
+    }
+
+    /**
+     * Writes the header and returns a writer for the body at the buffer's position.
+     */
+    public static Writer writer(ByteBuffer out, byte version, byte type, boolean compressed) {
+        putHeader(out, version, type, compressed);
+        return new Writer(out, compressed);
+    }
+
+    /**
+     * Reads and checks the header, and checks that the whole body is present, before any point is
+     * decoded.
+     *
+     * @param g1Points number of G1 points in the body
+     * @param g2Points number of G2 points in the body
+     * @throws IllegalArgumentException if the header is invalid or the frame is truncated
+     */
+    public static Reader reader(ByteBuffer in, byte version, byte type, int g1Points, int g2Points) {
+        boolean compressed = readHeader(in, version, type);
+        if (in.remaining() < size(compressed, g1Points, g2Points) - HEADER_LEN)
+            throw new IllegalArgumentException("truncated frame");
+        return new Reader(in, compressed);
+    }
+
+    /** Writes the points of a frame body in order. */
+    public static final class Writer {
+        private final ByteBuffer out;
+        private final boolean compressed;
+
+        private Writer(ByteBuffer out, boolean compressed) {
+            this.out = out;
+            this.compressed = compressed;
+        }
+
+        public Writer g1(G1Point p) {
+            PointCodec.putG1(out, p, compressed);
+            return this;
+        }
+
+        public Writer g2(G2Point p) {
+            PointCodec.putG2(out, p, compressed);
+            return this;
+        }
+    }
+
+    /** Reads the points of a frame body in order; each point is checked as in {@link PointCodec}. */
+    public static final class Reader {
+        private final ByteBuffer in;
+        private final boolean compressed;
+
+        private Reader(ByteBuffer in, boolean compressed) {
+            this.in = in;
+            this.compressed = compressed;
+        }
+
+        public G1Point g1() {
+            return PointCodec.getG1(in, compressed);
+        }
+
+        public G2Point g2() {
+            return PointCodec.getG2(in, compressed);
+        }
+    }
+}
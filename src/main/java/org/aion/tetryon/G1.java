@@ -26,6 +26,23 @@ public class G1 {
         return new G1Point(p.x, new Fp(q.subtract(p.y.c0.mod(q))));
     }
 
+    /**
+     * Checks that an affine point has canonical coordinates and satisfies y^2 = x^3 + 3.
+     * Used to validate points decoded from untrusted input before they reach the native code.
+     *
+     * @param p the affine point (INF is accepted)
+     * @return true if p is INF or a point on the curve
+     */
+    public static boolean isOnCurve(G1Point p) {
+        if (p.isZero()) return true;
+        BigInteger x = p.x.c0;
+        BigInteger y = p.y.c0;
+        if (x.signum() < 0 || x.compareTo(q) >= 0 || y.signum() < 0 || y.compareTo(q) >= 0) return false;
+        BigInteger lhs = y.multiply(y).mod(q);
+        BigInteger rhs = x.multiply(x).multiply(x).add(BigInteger.valueOf(3)).mod(q);
+        return lhs.equals(rhs);
+    }
+
     public static G1Point add(G1Point p1, G1Point p2) throws Exception {
         byte[] p1data = Util.serializeG1(p1);
         byte[] p2data = Util.serializeG1(p2);
@@ -41,6 +58,271 @@ public class G1 {
         return result;
     }
 
+    // set once the loaded native library turns out to predate g1EcMul2
+    private static volatile boolean nativeMul2Missing = false;
+
+    /**
+     * Computes s1*p1 + s2*p2 with a single shared doubling chain (Shamir's trick).
+     * <p>
+     * Uses the native g1EcMul2 (fixed 4-bit windows) when available. Older builds of bn_jni without
+     * that entry point fall back to {@link #jacobianMul2} (width-5 wNAF) in Java.
+     *
+     * @param p1 first point
+     * @param s1 scalar for p1 (non-negative)
+     * @param p2 second point
+     * @param s2 scalar for p2 (non-negative)
+     * @return s1*p1 + s2*p2
+     */
+    public static G1Point mul2(G1Point p1, BigInteger s1, G1Point p2, BigInteger s2) throws Exception {
+        if (!nativeMul2Missing) {
+            try {
+                byte[] resultData = AltBn128.g1EcMul2(Util.serializeG1(p1), s1, Util.serializeG1(p2), s2);
+                return Util.deserializeG1(resultData);
+            } catch (UnsatisfiedLinkError e) {
+                nativeMul2Missing = true;
+            }
+        }
+        return jacobianMul2(p1, s1, p2, s2).toAffine();
+    }
+
+    /*
+     * Pure-Java Jacobian arithmetic (x = X/Z^2, y = Y/Z^3), mirroring the G2 implementation.
+     * Each JNI call round-trips through an affine encoding (one field inversion per call), so long
+     * chains of additions such as multi-scalar multiplication are accumulated here and normalized once.
+     */
+
+    /**
+     * Lifts an affine point to Jacobian coordinates.
+     *
+     * @param p the affine point (INF maps to the point at infinity)
+     * @return p in Jacobian coordinates
+     */
+    public static JacobianPoint toJacobian(G1Point p) {
+        return p.isZero() ? JacobianPoint.INFINITY : new JacobianPoint(p.x.c0, p.y.c0, BigInteger.ONE);
+    }
+
+    /**
+     * Doubles a point (dbl-2009-l, a = 0).
+     *
+     * @param p the point
+     * @return 2 * p
+     */
+    public static JacobianPoint jacobianDouble(JacobianPoint p) {
+        if (p.isZero()) {
+            return p;
+        }
+        BigInteger A = p.x.multiply(p.x).mod(q);
+        BigInteger B = p.y.multiply(p.y).mod(q);
+        BigInteger C = B.multiply(B).mod(q);
+        BigInteger xb = p.x.add(B);
+        BigInteger D = xb.multiply(xb).subtract(A).subtract(C).shiftLeft(1).mod(q);
+        BigInteger E = A.multiply(BigInteger.valueOf(3));
+        BigInteger F = E.multiply(E).mod(q);
+        BigInteger x3 = F.subtract(D.shiftLeft(1)).mod(q);
+        BigInteger y3 = E.multiply(D.subtract(x3)).subtract(C.shiftLeft(3)).mod(q);
+        BigInteger z3 = p.y.multiply(p.z).shiftLeft(1).mod(q);
+        return new JacobianPoint(x3, y3, z3);
+    }
+
+    /**
+     * Adds two points (add-2007-bl).
+     *
+     * @param p1 the first point
+     * @param p2 the second point
+     * @return p1 + p2
+     */
+    public static JacobianPoint jacobianAdd(JacobianPoint p1, JacobianPoint p2) {
+        if (p1.isZero()) {
+            return p2;
+        } else if (p2.isZero()) {
+            return p1;
+        }
+        BigInteger z1z1 = p1.z.multiply(p1.z).mod(q);
+        BigInteger z2z2 = p2.z.multiply(p2.z).mod(q);
+        BigInteger u1 = p1.x.multiply(z2z2).mod(q);
+        BigInteger u2 = p2.x.multiply(z1z1).mod(q);
+        BigInteger s1 = p1.y.multiply(p2.z).multiply(z2z2).mod(q);
+        BigInteger s2 = p2.y.multiply(p1.z).multiply(z1z1).mod(q);
+        BigInteger h = u2.subtract(u1).mod(q);
+        BigInteger r = s2.subtract(s1).shiftLeft(1).mod(q);
+        if (h.signum() == 0) {
+            return r.signum() == 0 ? jacobianDouble(p1) : JacobianPoint.INFINITY;
+        }
+        BigInteger i = h.shiftLeft(1).pow(2).mod(q);
+        BigInteger j = h.multiply(i).mod(q);
+        BigInteger v = u1.multiply(i).mod(q);
+        BigInteger x3 = r.multiply(r).subtract(j).subtract(v.shiftLeft(1)).mod(q);
+        BigInteger y3 = r.multiply(v.subtract(x3)).subtract(s1.multiply(j).shiftLeft(1)).mod(q);
+        BigInteger zz = p1.z.add(p2.z);
+        BigInteger z3 = zz.multiply(zz).subtract(z1z1).subtract(z2z2).multiply(h).mod(q);
+        return new JacobianPoint(x3, y3, z3);
+    }
+
+    /**
+     * Adds an affine point to a Jacobian point (madd-2007-bl).
+     *
+     * @param p1 the Jacobian point
+     * @param p2 the affine point
+     * @return p1 + p2
+     */
+    public static JacobianPoint jacobianAddMixed(JacobianPoint p1, G1Point p2) {
+        if (p2.isZero()) {
+            return p1;
+        } else if (p1.isZero()) {
+            return toJacobian(p2);
+        }
+        BigInteger z1z1 = p1.z.multiply(p1.z).mod(q);
+        BigInteger u2 = p2.x.c0.multiply(z1z1).mod(q);
+        BigInteger s2 = p2.y.c0.multiply(p1.z).multiply(z1z1).mod(q);
+        BigInteger h = u2.subtract(p1.x).mod(q);
+        BigInteger r = s2.subtract(p1.y).shiftLeft(1).mod(q);
+        if (h.signum() == 0) {
+            return r.signum() == 0 ? jacobianDouble(p1) : JacobianPoint.INFINITY;
+        }
+        BigInteger hh = h.multiply(h).mod(q);
+        BigInteger i = hh.shiftLeft(2).mod(q);
+        BigInteger j = h.multiply(i).mod(q);
+        BigInteger v = p1.x.multiply(i).mod(q);
+        BigInteger x3 = r.multiply(r).subtract(j).subtract(v.shiftLeft(1)).mod(q);
+        BigInteger y3 = r.multiply(v.subtract(x3)).subtract(p1.y.multiply(j).shiftLeft(1)).mod(q);
+        BigInteger zh = p1.z.add(h);
+        BigInteger z3 = zh.multiply(zh).subtract(z1z1).subtract(hh).mod(q);
+        return new JacobianPoint(x3, y3, z3);
+    }
+
+    /**
+     * Negates a point.
+     *
+     * @param p the point
+     * @return -p
+     */
+    public static JacobianPoint jacobianNegate(JacobianPoint p) {
+        return p.isZero() ? p : new JacobianPoint(p.x, q.subtract(p.y).mod(q), p.z);
+    }
+
+    /**
+     * Converts many Jacobian points to affine with a single field inversion (Montgomery's trick).
+     *
+     * @param pts the points (may contain the point at infinity)
+     * @return the affine points, in the same order
+     */
+    public static G1Point[] batchToAffine(JacobianPoint[] pts) {
+        int n = pts.length;
+        BigInteger[] prefix = new BigInteger[n];
+        BigInteger acc = BigInteger.ONE;
+        for (int i = 0; i < n; i++) {
+            if (!pts[i].isZero()) acc = acc.multiply(pts[i].z).mod(q);
+            prefix[i] = acc;
+        }
+        BigInteger inv = acc.modInverse(q);
+        G1Point[] out = new G1Point[n];
+        for (int i = n - 1; i >= 0; i--) {
+            JacobianPoint p = pts[i];
+            if (p.isZero()) {
+                out[i] = G1Point.INF;
+                continue;
+            }
+            BigInteger zInv = i == 0 ? inv : inv.multiply(prefix[i - 1]).mod(q);
+            inv = inv.multiply(p.z).mod(q);
+            BigInteger zInv2 = zInv.multiply(zInv).mod(q);
+            out[i] = new G1Point(new Fp(p.x.multiply(zInv2).mod(q)), new Fp(p.y.multiply(zInv2).multiply(zInv).mod(q)));
+        }
+        return out;
+    }
+
+    // width of the signed-digit windows used by jacobianMul2
+    private static final int WNAF_WIDTH = 5;
+
+    /**
+     * Computes s1*p1 + s2*p2 with interleaved width-5 wNAF: both scalars share one doubling chain, and
+     * each only adds a precomputed odd multiple at its non-zero digits (about one in six).
+     *
+     * @param p1 first point
+     * @param s1 scalar for p1 (non-negative)
+     * @param p2 second point
+     * @param s2 scalar for p2 (non-negative)
+     * @return s1*p1 + s2*p2 in Jacobian coordinates
+     */
+    public static JacobianPoint jacobianMul2(G1Point p1, BigInteger s1, G1Point p2, BigInteger s2) {
+        int[] da = wnaf(s1, WNAF_WIDTH);
+        int[] db = wnaf(s2, WNAF_WIDTH);
+        JacobianPoint[] tp = oddMultiples(p1, WNAF_WIDTH);
+        JacobianPoint[] tq = oddMultiples(p2, WNAF_WIDTH);
+
+        JacobianPoint acc = JacobianPoint.INFINITY;
+        for (int i = Math.max(da.length, db.length) - 1; i >= 0; i--) {
+            acc = jacobianDouble(acc);
+            if (i < da.length && da[i] != 0) acc = addDigit(acc, tp, da[i]);
+            if (i < db.length && db[i] != 0) acc = addDigit(acc, tq, db[i]);
+        }
+        return acc;
+    }
+
+    private static JacobianPoint addDigit(JacobianPoint acc, JacobianPoint[] table, int digit) {
+        return digit > 0
+                ? jacobianAdd(acc, table[digit >> 1])
+                : jacobianAdd(acc, jacobianNegate(table[(-digit) >> 1]));
+    }
+
+    /** P, 3P, 5P, ..., (2^(w-1) - 1)P */
+    private static JacobianPoint[] oddMultiples(G1Point p, int w) {
+        JacobianPoint[] table = new JacobianPoint[1 << (w - 2)];
+        table[0] = toJacobian(p);
+        JacobianPoint twoP = jacobianDouble(table[0]);
+        for (int i = 1; i < table.length; i++) table[i] = jacobianAdd(table[i - 1], twoP);
+        return table;
+    }
+
+    /** Width-w non-adjacent form, least significant digit first; digits are odd and |d| < 2^(w-1). */
+    static int[] wnaf(BigInteger k, int w) {
+        int[] digits = new int[k.bitLength() + 1];
+        int mask = (1 << w) - 1;
+        int i = 0;
+        while (k.signum() > 0) {
+            if (k.testBit(0)) {
+                int d = k.intValue() & mask;
+                if (d >= 1 << (w - 1)) d -= 1 << w;
+                digits[i] = d;
+                k = k.subtract(BigInteger.valueOf(d));
+            }
+            k = k.shiftRight(1);
+            i++;
+        }
+        return digits;
+    }
+
+    public static class JacobianPoint {
+        public static final JacobianPoint INFINITY = new JacobianPoint(BigInteger.ONE, BigInteger.ONE, BigInteger.ZERO);
+
+        public final BigInteger x;
+        public final BigInteger y;
+        public final BigInteger z;
+
+        public JacobianPoint(BigInteger x, BigInteger y, BigInteger z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        public boolean isZero() {
+            return z.signum() == 0;
+        }
+
+        public G1Point toAffine() {
+            if (isZero()) {
+                return G1Point.INF;
+            }
+            BigInteger zInv = z.modInverse(q);
+            BigInteger zInv2 = zInv.multiply(zInv).mod(q);
+            return new G1Point(new Fp(x.multiply(zInv2).mod(q)), new Fp(y.multiply(zInv2).multiply(zInv).mod(q)));
+        }
+
+        @Override
+        public String toString() {
+            return "(" + x + ", " + y + ", " + z + ")";
+        }
+    }
+
 
     public static byte[] concatenate(BigInteger num, String address) {//用于拼接地址
         // 将 BigInteger 转换为 byte 数组
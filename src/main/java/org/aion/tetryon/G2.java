@@ -16,6 +16,20 @@ public class G2 {
             new BigInteger("9713b03af0fed4cd2cafadeed8fdf4a74fa084e52d1852e4a2bd0685c315d2", 16)
     );
 
+    // order of the G1 / G2 subgroups
+    private static final BigInteger GROUP_ORDER = new BigInteger("21888242871839275222246405745257275088548364400416034343698204186575808495617");
+
+    // psi(x, y) = (conj(x) * xi^((p-1)/3), conj(y) * xi^((p-1)/2)) with xi = 9 + i, the untwist-Frobenius-twist map
+    private static final Fp2 XI = new Fp2(BigInteger.valueOf(9), BigInteger.ONE);
+    private static final Fp2 PSI_X = pow(XI, Fp2.FIELD_MODULUS.subtract(BigInteger.ONE).divide(BigInteger.valueOf(3)));
+    private static final Fp2 PSI_Y = pow(XI, Fp2.FIELD_MODULUS.subtract(BigInteger.ONE).shiftRight(1));
+
+    // psi acts on G2 as multiplication by p mod r = 6u^2 (about 127 bits)
+    private static final BigInteger LAMBDA = Fp2.FIELD_MODULUS.mod(GROUP_ORDER);
+
+    // width of the signed-digit windows used by mulGLS
+    private static final int WNAF_WIDTH = 5;
+
     /**
      * Adds two points.
      *
@@ -59,6 +73,37 @@ public class G2 {
         return p2;
     }
 
+    /**
+     * Checks that a point lies on the twist and in the order-r subgroup (r * p == 0). The twist has a
+     * large cofactor, so points from untrusted input need this before being used as public keys.
+     *
+     * @param p the affine point (the point at infinity is rejected)
+     * @return true if p is a non-zero point of order r
+     */
+    public static boolean isInSubgroup(G2Point p) {
+        if (p.isZero() || !isOnCurve(p)) return false;
+        return ECTwistMul(toJacobian(p), GROUP_ORDER).z.isZero();
+    }
+
+    /**
+     * Same check as {@link #isInSubgroup} via the endomorphism: p is in the order-r subgroup iff
+     * psi(p) == [lambda] p with lambda = p mod r = 6u^2. The multiplier is about 127 bits instead of
+     * 254, so this costs roughly half of {@link #isInSubgroup}; the criterion holds for BN254 because
+     * no cofactor-torsion point of the twist is an eigenvector of psi with eigenvalue lambda.
+     * Meant for per-message inputs such as signature components.
+     *
+     * @param p the affine point (the point at infinity is rejected)
+     * @return true if p is a non-zero point of order r
+     */
+    public static boolean isInSubgroupPsi(G2Point p) {
+        if (p.isZero() || !isOnCurve(p)) return false;
+        JacobianPoint l = ECTwistMul(toJacobian(p), LAMBDA);
+        if (l.z.isZero()) return false;
+        // psi(p) is affine, so compare X == x' * Z and Y == y' * Z without inverting Z
+        return l.x.equals(conj(p.x).multiply(PSI_X).multiply(l.z))
+                && l.y.equals(conj(p.y).multiply(PSI_Y).multiply(l.z));
+    }
+
     protected static boolean isOnCurve(G2Point p) {
         Fp2 y2 = p.y.multiply(p.y); // y^2
         Fp2 x3 = p.x.multiply(p.x).multiply(p.x); // x^3
@@ -79,8 +124,8 @@ public class G2 {
         Fp2 V1 = p2.x.multiply(p1.z); // V1 = p2.x * p1.z
         Fp2 V2 = p1.x.multiply(p2.z); // V2 = p1.x * p2.z
 
-        if (p2.x.equals(V2)) {
-            if (p2.y.equals(U2)) {
+        if (V1.equals(V2)) {
+            if (U1.equals(U2)) {
                 return ECTwistDouble(p1);
             }
 
@@ -141,6 +186,96 @@ public class G2 {
         return new JacobianPoint(x, y, z);
     }
 
+    /**
+     * Multiplies a point of G2 by a scalar using the GLS endomorphism psi.
+     * <p>
+     * s is split as k0 + k1 * lambda with lambda = p mod r, so both halves are about 127 bits, and
+     * s * p = k0 * p + k1 * psi(p) is evaluated with interleaved width-5 wNAF on one shared doubling
+     * chain: roughly half the doublings of {@link #ECTwistMul(G2Point, BigInteger)} and a third of its
+     * additions. The odd multiples of psi(p) are the images of those of p under psi, which costs two
+     * Fp2 multiplications each.
+     * <p>
+     * Only valid for points in the order-r subgroup (see {@link #isInSubgroup}), where psi = [lambda].
+     *
+     * @param p a point of G2
+     * @param s the multiplier (non-negative)
+     * @return s * p
+     */
+    public static G2Point mulGLS(G2Point p, BigInteger s) {
+        if (p.isZero()) return p;
+        BigInteger[] k = s.mod(GROUP_ORDER).divideAndRemainder(LAMBDA);
+        int[] d1 = G1.wnaf(k[0], WNAF_WIDTH);
+        int[] d0 = G1.wnaf(k[1], WNAF_WIDTH);
+
+        JacobianPoint[] tp = new JacobianPoint[1 << (WNAF_WIDTH - 2)];
+        JacobianPoint[] tq = new JacobianPoint[tp.length];
+        tp[0] = toJacobian(p);
+        JacobianPoint twoP = ECTwistDouble(tp[0]);
+        for (int i = 1; i < tp.length; i++) tp[i] = ECTwistAdd(tp[i - 1], twoP);
+        for (int i = 0; i < tp.length; i++) tq[i] = psi(tp[i]);
+
+        JacobianPoint acc = new JacobianPoint(Fp2.one(), Fp2.one(), Fp2.zero());
+        for (int i = Math.max(d0.length, d1.length) - 1; i >= 0; i--) {
+            acc = ECTwistDouble(acc);
+            if (i < d0.length && d0[i] != 0) acc = addDigit(acc, tp, d0[i]);
+            if (i < d1.length && d1[i] != 0) acc = addDigit(acc, tq, d1[i]);
+        }
+        return acc.toAffine();
+    }
+
+    /** The endomorphism psi on projective coordinates; conj is a field automorphism, so it applies to X, Y, Z directly. */
+    static JacobianPoint psi(JacobianPoint p) {
+        return new JacobianPoint(conj(p.x).multiply(PSI_X), conj(p.y).multiply(PSI_Y), conj(p.z));
+    }
+
+    private static JacobianPoint addDigit(JacobianPoint acc, JacobianPoint[] table, int digit) {
+        JacobianPoint t = table[Math.abs(digit) >> 1];
+        if (digit < 0) t = new JacobianPoint(t.x, Fp2.zero().subtract(t.y), t.z);
+        return ECTwistAdd(acc, t);
+    }
+
+    private static Fp2 conj(Fp2 a) {
+        return new Fp2(a.a, Fp2.FIELD_MODULUS.subtract(a.b).mod(Fp2.FIELD_MODULUS));
+    }
+
+    private static Fp2 pow(Fp2 a, BigInteger e) {
+        Fp2 r = Fp2.one();
+        for (int i = e.bitLength() - 1; i >= 0; i--) {
+            r = r.multiply(r);
+            if (e.testBit(i)) r = r.multiply(a);
+        }
+        return r;
+    }
+
+    /**
+     * Converts many projective points to affine with a single Fp2 inversion (Montgomery's trick).
+     *
+     * @param pts the points (may contain the point at infinity)
+     * @return the affine points, in the same order
+     */
+    public static G2Point[] batchToAffine(JacobianPoint[] pts) {
+        int n = pts.length;
+        Fp2[] prefix = new Fp2[n];
+        Fp2 acc = Fp2.one();
+        for (int i = 0; i < n; i++) {
+            if (!pts[i].z.isZero()) acc = acc.multiply(pts[i].z);
+            prefix[i] = acc;
+        }
+        Fp2 inv = acc.inverse();
+        G2Point[] out = new G2Point[n];
+        for (int i = n - 1; i >= 0; i--) {
+            JacobianPoint p = pts[i];
+            if (p.z.isZero()) {
+                out[i] = new G2Point(Fp2.zero(), Fp2.zero());
+                continue;
+            }
+            Fp2 zInv = i == 0 ? inv : inv.multiply(prefix[i - 1]);
+            inv = inv.multiply(p.z);
+            out[i] = new G2Point(p.x.multiply(zInv), p.y.multiply(zInv));
+        }
+        return out;
+    }
+
     protected static JacobianPoint toJacobian(G2Point p) {
         return p.isZero() ? new JacobianPoint(Fp2.one(), Fp2.one(), Fp2.zero()) : new JacobianPoint(p.x, p.y, Fp2.one());
     }
@@ -192,4 +327,28 @@ public class G2 {
             return "((" + x.a + ", " + x.b + "), (" + y.a + ", " + y.b + "), (" + z.a + ", " + z.b + "))";
         }
     }
+
+    /**
+     * Regression check for {@link #ECTwistAdd(JacobianPoint, JacobianPoint)}: adding two equal points
+     * with z != 1 must double them. The doubling test used to compare p2.x with p1.x * p2.z, which only
+     * holds for z == 1, so such a sum came out as the point at infinity.
+     */
+    public static void main(String[] args) {
+        G2Point g = new G2Point(
+                new Fp2(new BigInteger("10857046999023057135944570762232829481370756359578518086990519993285655852781"),
+                        new BigInteger("11559732032986387107991004021392285783925812861821192530917403151452391805634")),
+                new Fp2(new BigInteger("8495653923123431417604973247489272438418190587263600148770280649306958101930"),
+                        new BigInteger("4082367875863433681332203403145435568316851327593401208105741076214120093531")));
+        G2Point four = ECTwistMul(g, BigInteger.valueOf(4));
+
+        JacobianPoint p = ECTwistDouble(toJacobian(g)); // 2g with z != 1
+        BigInteger k = BigInteger.valueOf(7);
+        JacobianPoint q = new JacobianPoint(p.x.multiply(k), p.y.multiply(k), p.z.multiply(k)); // 2g, other z
+
+        boolean ok = !p.z.equals(Fp2.one());
+        for (JacobianPoint sum : new JacobianPoint[]{ECTwistAdd(p, p), ECTwistAdd(p, q)}) {
+            ok &= !sum.z.isZero() && sum.toAffine().equals(four);
+        }
+        System.out.println(ok ? "G2 add check success!" : "G2 add check error!");
+    }
 }
@@ -0,0 +1,66 @@
+package org.aion.tetryon;
+
+import java.math.BigInteger;
+
+/**
+ * Precomputed multiples of a fixed G2 point: table[j][d-1] = d * 2^(4j) * B.
+ * <p>
+ * A scalar multiplication splits the scalar into 64 four-bit windows and adds one table entry per
+ * non-zero window, with no doublings. Building the table costs about 960 point additions, so it pays
+ * off for bases such as hatG that are multiplied on every signature.
+ */
+public final class G2FixedBaseTable {
+
+    private static final int WINDOW = 4;
+    private static final int DIGITS = (1 << WINDOW) - 1;
+    private static final int WINDOWS = (256 + WINDOW - 1) / WINDOW;
+
+    public final G2Point base;
+    private final G2.JacobianPoint[][] table;
+
+    public G2FixedBaseTable(G2Point base) {
+        this.base = base;
+        this.table = new G2.JacobianPoint[WINDOWS][DIGITS];
+        G2.JacobianPoint cur = G2.toJacobian(base);
+        for (int j = 0; j < WINDOWS; j++) {
+            G2.JacobianPoint acc = cur;
+            for (int d = 0; d < DIGITS; d++) {
+                table[j][d] = acc;
+                acc = G2.ECTwistAdd(acc, cur);
+            }
+            cur = acc;      // 16 * 2^(4j) * B = 2^(4(j+1)) * B
+        }
+    }
+
+    /**
+     * Multiplies the base by a scalar.
+     *
+     * @param s the multiplier (non-negative, at most 256 bits)
+     * @return s * base
+     */
+    public G2Point mul(BigInteger s) {
+        return mulJacobian(s).toAffine();
+    }
+
+    /**
+     * Multiplies the base by many scalars, normalizing all results with a single inversion.
+     *
+     * @param s the multipliers (non-negative, at most 256 bits)
+     * @return s[i] * base, in the same order
+     */
+    public G2Point[] mulAll(BigInteger[] s) {
+        G2.JacobianPoint[] out = new G2.JacobianPoint[s.length];
+        for (int i = 0; i < s.length; i++) out[i] = mulJacobian(s[i]);
+        return G2.batchToAffine(out);
+    }
+
+    private G2.JacobianPoint mulJacobian(BigInteger k) {
+        G2.JacobianPoint acc = new G2.JacobianPoint(Fp2.one(), Fp2.one(), Fp2.zero());
+        for (int j = 0; j < WINDOWS; j++) {
+            int d = 0;
+            for (int b = WINDOW - 1; b >= 0; b--) d = (d << 1) | (k.testBit(j * WINDOW + b) ? 1 : 0);
+            if (d != 0) acc = G2.ECTwistAdd(acc, table[j][d - 1]);
+        }
+        return acc;
+    }
+}
@@ -55,6 +55,29 @@ public class Pairing {
         return AltBn128.ecPair(g1ListData.toByteArray(), g2ListData.toByteArray());
     }
 
+    /**
+     * Bilinear pairing check with the G2 side already serialized by {@link Util#serializeG2}.
+     * Fixed G2 inputs such as public keys and generators can then be encoded once and reused.
+     *
+     * @param p1 the G1 points
+     * @param p2 the serialized G2 points, 128 bytes each
+     * @return true if the product of the pairings is 1
+     */
+    public static boolean pairing(G1Point[] p1, byte[][] p2) throws Exception {
+        if (p1.length != p2.length) {
+            throw new IllegalArgumentException("Points are not in pair");
+        }
+
+        byte[] g1ListData = new byte[p1.length * Util.FP_SIZE * 2];
+        byte[] g2ListData = new byte[p1.length * Util.FP_SIZE * 4];
+        for (int i = 0; i < p1.length; i++) {
+            System.arraycopy(Util.serializeG1(p1[i]), 0, g1ListData, i * Util.FP_SIZE * 2, Util.FP_SIZE * 2);
+            System.arraycopy(p2[i], 0, g2ListData, i * Util.FP_SIZE * 4, Util.FP_SIZE * 4);
+        }
+
+        return AltBn128.ecPair(g1ListData, g2ListData);
+    }
+
     public static boolean pairingProd1(G1Point a1, G2Point a2) throws Exception {
         return pairing(new G1Point[]{a1}, new G2Point[]{a2});
     }
@@ -0,0 +1,202 @@
+package org.aion.tetryon;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size binary encodings of G1 and G2 points, compressed or uncompressed.
+ * <p>
+ * Uncompressed points use the layout of {@link Util#serializeG1} / {@link Util#serializeG2}.
+ * Compressed points carry only x (32 bytes for G1, x.a || x.b = 64 bytes for G2). Because the
+ * field modulus is below 2^254, the two top bits of the first byte are free for flags:
+ * bit 7 marks the point at infinity (all other bits zero), bit 6 holds the sign of y.
+ * For G1 the sign is the parity of y; for G2 it is the parity of y.a, or of y.b when y.a is zero.
+ * <p>
+ * Decoding rejects non-canonical coordinates and points that are not on the curve. G1 has
+ * cofactor 1, so that is a full check; G2 subgroup membership is left to the pairing check,
+ * as with the uncompressed {@link Util#deserializeG2}.
+ */
+public final class PointCodec {
+
+    public static final int G1_COMPRESSED_SIZE = Util.FP_SIZE;
+    public static final int G1_UNCOMPRESSED_SIZE = Util.FP_SIZE * 2;
+    public static final int G2_COMPRESSED_SIZE = Util.FP_SIZE * 2;
+    public static final int G2_UNCOMPRESSED_SIZE = Util.FP_SIZE * 4;
+
+    private static final BigInteger P = Fp.FIELD_MODULUS;
+    private static final BigInteger SQRT_EXP = P.add(BigInteger.ONE).shiftRight(2);   // (p + 1) / 4
+    private static final BigInteger HALF = BigInteger.valueOf(2).modInverse(P);
+    private static final BigInteger B1 = BigInteger.valueOf(3);
+
+    private static final int INFINITY_FLAG = 0x80;
+    private static final int SIGN_FLAG = 0x40;
+
+    private PointCodec() {}
+
+    public static int g1Size(boolean compressed) {
+        return compressed ? G1_COMPRESSED_SIZE : G1_UNCOMPRESSED_SIZE;
+    }
+
+    public static int g2Size(boolean compressed) {
+        return compressed ? G2_COMPRESSED_SIZE : G2_UNCOMPRESSED_SIZE;
+    }
+
+    /* ----------------------------- G1 ----------------------------- */
+
+    /**
+     * Writes a G1 point at the buffer's position.
+     *
+     * @param out        the destination (heap or direct)
+     * @param p          the point
+     * @param compressed whether to write only x and the sign of y
+     */
+    public static void putG1(ByteBuffer out, G1Point p, boolean compressed) {
+        if (!compressed) {
+            putFp(out, p.x.c0, 0);
+            putFp(out, p.y.c0, 0);
+        } else if (p.isZero()) {
+            putFlagsOnly(out, G1_COMPRESSED_SIZE);
+        } else {
+            putFp(out, p.x.c0, p.y.c0.testBit(0) ? SIGN_FLAG : 0);
+        }
+    }
+
+    /**
+     * Reads a G1 point from the buffer's position and advances past it.
+     *
+     * @throws IllegalArgumentException if the encoding is truncated, non-canonical, or not on the curve
+     */
+    public static G1Point getG1(ByteBuffer in, boolean compressed) {
+        need(in, g1Size(compressed));
+        if (!compressed) {
+            G1Point p = new G1Point(new Fp(getFp(in, false)), new Fp(getFp(in, false)));
+            if (!G1.isOnCurve(p)) throw new IllegalArgumentException("G1 point not on curve");
+            return p;
+        }
+        int flags = in.get(in.position()) & 0xff;
+        BigInteger x = getFp(in, true);
+        if ((flags & INFINITY_FLAG) != 0) {
+            if (flags != INFINITY_FLAG || x.signum() != 0)
+                throw new IllegalArgumentException("non-canonical G1 infinity");
+            return G1Point.INF;
+        }
+        BigInteger y = sqrt(x.multiply(x).multiply(x).add(B1).mod(P));
+        if (y == null) throw new IllegalArgumentException("G1 point not on curve");
+        if (y.testBit(0) != ((flags & SIGN_FLAG) != 0)) y = P.subtract(y).mod(P);
+        return new G1Point(new Fp(x), new Fp(y));
+    }
+
+    /* ----------------------------- G2 ----------------------------- */
+
+    /**
+     * Writes a G2 point at the buffer's position.
+     *
+     * @param out        the destination (heap or direct)
+     * @param p          the point
+     * @param compressed whether to write only x and the sign of y
+     */
+    public static void putG2(ByteBuffer out, G2Point p, boolean compressed) {
+        if (!compressed) {
+            putFp(out, p.x.a, 0);
+            putFp(out, p.x.b, 0);
+            putFp(out, p.y.a, 0);
+            putFp(out, p.y.b, 0);
+        } else if (p.isZero()) {
+            putFlagsOnly(out, G2_COMPRESSED_SIZE);
+        } else {
+            putFp(out, p.x.a, sign(p.y) ? SIGN_FLAG : 0);
+            putFp(out, p.x.b, 0);
+        }
+    }
+
+    /**
+     * Reads a G2 point from the buffer's position and advances past it.
+     *
+     * @throws IllegalArgumentException if the encoding is truncated, non-canonical, or not on the twist
+     */
+    public static G2Point getG2(ByteBuffer in, boolean compressed) {
+        need(in, g2Size(compressed));
+        if (!compressed) {
+            Fp2 x = new Fp2(getFp(in, false), getFp(in, false));
+            Fp2 y = new Fp2(getFp(in, false), getFp(in, false));
+            G2Point p = new G2Point(x, y);
+            if (!p.isZero() && !G2.isOnCurve(p)) throw new IllegalArgumentException("G2 point not on curve");
+            return p;
+        }
+        int flags = in.get(in.position()) & 0xff;
+        Fp2 x = new Fp2(getFp(in, true), getFp(in, false));
+        if ((flags & INFINITY_FLAG) != 0) {
+            if (flags != INFINITY_FLAG || !x.isZero())
+                throw new IllegalArgumentException("non-canonical G2 infinity");
+            return new G2Point(Fp2.zero(), Fp2.zero());
+        }
+        Fp2 y = sqrt(x.multiply(x).multiply(x).add(G2.TWIST_B));
+        if (y == null) throw new IllegalArgumentException("G2 point not on curve");
+        if (sign(y) != ((flags & SIGN_FLAG) != 0)) y = Fp2.zero().subtract(y);
+        return new G2Point(x, y);
+    }
+
+    /* --------------------------- helpers --------------------------- */
+
+    private static boolean sign(Fp2 y) {
+        return y.a.signum() != 0 ? y.a.testBit(0) : y.b.testBit(0);
+    }
+
+    /** Square root in Fp (p = 3 mod 4), or null if a is not a square. */
+    private static BigInteger sqrt(BigInteger a) {
+        BigInteger s = a.modPow(SQRT_EXP, P);
+        return s.multiply(s).mod(P).equals(a.mod(P)) ? s : null;
+    }
+
+    /**
+     * Square root in Fp2 = Fp[i]/(i^2 + 1) through the norm: for a = a0 + a1*i, with
+     * s = sqrt(a0^2 + a1^2), the root is x0 + x1*i where x0 = sqrt((a0 +- s)/2) and x1 = a1/(2*x0).
+     * Returns null if a is not a square.
+     */
+    private static Fp2 sqrt(Fp2 a) {
+        if (a.b.signum() == 0) {
+            BigInteger r = sqrt(a.a);
+            if (r != null) return new Fp2(r, BigInteger.ZERO);
+            r = sqrt(P.subtract(a.a).mod(P));               // -1 is a non-residue, so a0 = -r^2 = (r*i)^2
+            return r == null ? null : new Fp2(BigInteger.ZERO, r);
+        }
+        BigInteger s = sqrt(a.a.multiply(a.a).add(a.b.multiply(a.b)).mod(P));
+        if (s == null) return null;
+        BigInteger x0 = sqrt(a.a.add(s).multiply(HALF).mod(P));
+        if (x0 == null) x0 = sqrt(a.a.subtract(s).multiply(HALF).mod(P));
+        if (x0 == null || x0.signum() == 0) return null;
+        BigInteger x1 = a.b.multiply(x0.shiftLeft(1).modInverse(P)).mod(P);
+        Fp2 r = new Fp2(x0, x1);
+        return r.multiply(r).equals(a) ? r : null;
+    }
+
+    private static void putFp(ByteBuffer out, BigInteger v, int flags) {
+        byte[] b = v.toByteArray();
+        int len = Math.min(b.length, Util.FP_SIZE);
+        int pad = Util.FP_SIZE - len;
+        int start = out.position();
+        for (int i = 0; i < pad; i++) out.put((byte) 0);
+        out.put(b, b.length - len, len);
+        out.put(start, (byte) (out.get(start) | flags));
+    }
+
+    private static void putFlagsOnly(ByteBuffer out, int size) {
+        out.put((byte) INFINITY_FLAG);
+        for (int i = 1; i < size; i++) out.put((byte) 0);
+    }
+
+    /** Reads a 32-byte big-endian field element; with stripFlags the two flag bits are cleared first. */
+    private static BigInteger getFp(ByteBuffer in, boolean stripFlags) {
+        byte[] b = new byte[Util.FP_SIZE];
+        in.get(b);
+        if (stripFlags) b[0] &= 0x3f;
+        BigInteger v = new BigInteger(1, b);
+        if (v.compareTo(P) >= 0) throw new IllegalArgumentException("non-canonical field element");
+        return v;
+    }
+
+    private static void need(ByteBuffer in, int n) {
+        if (in.remaining() < n)
+            throw new IllegalArgumentException("truncated point: need " + n + " bytes, have " + in.remaining());
+    }
+}